@@ -0,0 +1,20 @@
+#!/usr/bin/env sh
+# Runs the JMH suite (benchmark profile) and, when a baseline exists, fails on regressions.
+#   scripts/benchmark.sh [jmh options, e.g. a benchmark regex]
+#   BASELINE=benchmarks/baseline.json TOLERANCE=10 scripts/benchmark.sh
+set -e
+cd "$(dirname "$0")/.."
+
+BASELINE=${BASELINE:-benchmarks/baseline.json}
+TOLERANCE=${TOLERANCE:-10}
+RESULT=target/jmh-result.json
+
+sh mvnw -B -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="$* -prof gc -rf json -rff $RESULT"
+
+if [ -f "$BASELINE" ]; then
+    sh mvnw -B -q -Pbenchmark exec:exec \
+        -Djmh.main=com.ederson.beerstock.benchmark.RegressionCheck \
+        -Djmh.args="$BASELINE $RESULT $TOLERANCE"
+else
+    echo "No baseline at $BASELINE; copy $RESULT there to enable regression checks."
+fi
@@ -0,0 +1,41 @@
+#!/usr/bin/env sh
+# Starts the packaged application once per execution mode and drives it with the closed-loop LoadTest.
+#   scripts/load-test.sh [clients] [seconds] [warm-up seconds]
+#   RUNTIME_JAVA=/path/to/jdk-21/bin/java MODES="platform virtual" scripts/load-test.sh 2000 60
+# The build itself runs on JAVA_HOME (Java 11); virtual mode needs a Java 21+ RUNTIME_JAVA.
+# Rate and concurrency limits are turned off so the run measures capacity; LIMITS=on keeps them, and every
+# client then sends its own X-Client-Id so it gets its own rate limit bucket.
+set -e
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-1000}
+DURATION=${2:-30}
+WARMUP=${3:-10}
+PORT=${PORT:-8080}
+MODES=${MODES:-"platform virtual"}
+RUNTIME_JAVA=${RUNTIME_JAVA:-java}
+LIMITS=${LIMITS:-off}
+
+LIMIT_ARGS=""
+if [ "$LIMITS" = "off" ]; then
+    LIMIT_ARGS="--beerstock.rate-limit.enabled=false --beerstock.concurrency-limit.enabled=false"
+fi
+
+sh mvnw -B -q -DskipTests package
+sh mvnw -B -q -Pbenchmark -DskipTests test-compile
+
+for MODE in $MODES; do
+    "$RUNTIME_JAVA" -jar target/beerstock-0.0.1-SNAPSHOT.jar --server.port="$PORT" \
+        --beerstock.execution.mode="$MODE" --logging.level.root=WARN $LIMIT_ARGS > "target/load-test-$MODE.log" 2>&1 &
+    PID=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$PID" 2> /dev/null || { cat "target/load-test-$MODE.log"; exit 1; }
+        sleep 1
+    done
+    echo "== $MODE =="
+    sh mvnw -B -q -Pbenchmark exec:exec \
+        -Djmh.main=com.ederson.beerstock.benchmark.LoadTest \
+        -Djmh.args="http://localhost:$PORT/api/beers $CLIENTS $DURATION $WARMUP"
+    kill "$PID"
+    wait "$PID" || true
+done
@@ -0,0 +1,67 @@
+#!/usr/bin/env sh
+# Measures time until /actuator/health answers, the first /api/beers request and resident memory, per profile.
+#   scripts/startup.sh [runs]
+#   RUNTIME_JAVA=/path/to/jdk-17/bin/java PROFILES="default prod" CDS=1 scripts/startup.sh 5
+# The jar is exploded into a flat classpath of plain jars (CDS cannot archive nested jars or directories); with CDS=1 (Java 13+ runtime) a
+# training run per profile dumps an AppCDS archive that the measured runs then map at startup.
+set -e
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+PORT=${PORT:-8080}
+PROFILES=${PROFILES:-"default prod"}
+RUNTIME_JAVA=${RUNTIME_JAVA:-java}
+CDS=${CDS:-0}
+WORK=target/startup
+APP=$WORK/app
+MAIN=com.ederson.beerstock.BeerStockApplication
+
+sh mvnw -B -q -DskipTests package
+rm -rf "$APP" && mkdir -p "$APP"
+(cd "$APP" && jar -xf ../../beerstock-0.0.1-SNAPSHOT.jar)
+jar -cf "$WORK/beerstock-classes.jar" -C "$APP/BOOT-INF/classes" .
+CLASSPATH="$WORK/beerstock-classes.jar:$APP/BOOT-INF/lib/*"
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+# start <profile> <extra jvm options>; sets PID and STARTUP_MS
+start() {
+    BEGIN=$(now_ms)
+    "$RUNTIME_JAVA" $2 -cp "$CLASSPATH" $MAIN --spring.profiles.active="$1" --server.port="$PORT" \
+        --logging.level.root=WARN > "$WORK/$1.log" 2>&1 &
+    PID=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$PID" 2> /dev/null || { cat "$WORK/$1.log"; exit 1; }
+        sleep 0.05
+    done
+    STARTUP_MS=$(($(now_ms) - BEGIN))
+}
+
+stop() {
+    kill "$PID"
+    wait "$PID" 2> /dev/null || true
+}
+
+printf "%-8s %-4s %-4s %10s %14s %10s\n" profile cds run startup_ms first_request_ms rss_kb
+for PROFILE in $PROFILES; do
+    OPTIONS=""
+    if [ "$CDS" = "1" ]; then
+        start "$PROFILE" "-XX:ArchiveClassesAtExit=$WORK/$PROFILE.jsa"
+        curl -sf "http://localhost:$PORT/api/beers" > /dev/null
+        stop
+        OPTIONS="-XX:SharedArchiveFile=$WORK/$PROFILE.jsa"
+    fi
+    RUN=1
+    while [ "$RUN" -le "$RUNS" ]; do
+        start "$PROFILE" "$OPTIONS"
+        BEGIN=$(now_ms)
+        curl -sf "http://localhost:$PORT/api/beers" > /dev/null
+        FIRST_REQUEST_MS=$(($(now_ms) - BEGIN))
+        RSS_KB=$(awk '/VmRSS/ {print $2}' "/proc/$PID/status")
+        stop
+        printf "%-8s %-4s %-4s %10s %14s %10s\n" "$PROFILE" "$CDS" "$RUN" "$STARTUP_MS" "$FIRST_REQUEST_MS" "$RSS_KB"
+        RUN=$((RUN + 1))
+    done
+done
@@ -0,0 +1,49 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.mapper.BeerMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeerMapperBenchmark {
+
+    private BeerMapper beerMapper;
+    private Beer beer;
+    private BeerDTO beerDTO;
+
+    @Setup
+    public void setUp() {
+        beerMapper = new BeerMapperImpl();
+        beer = new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER, null);
+        beerDTO = new BeerDTO(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER);
+    }
+
+    @Benchmark
+    public BeerDTO toDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer toModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+}
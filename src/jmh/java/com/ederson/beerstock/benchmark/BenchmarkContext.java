@@ -0,0 +1,46 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.BeerStockApplication;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class BenchmarkContext {
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BeerStockApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.main.banner-mode=off")
+                .run(Arrays.stream(properties)
+                        .map(property -> "--" + property)
+                        .toArray(String[]::new));
+    }
+
+    public static List<String> seedCatalog(BeerRepository beerRepository, int catalogSize) {
+        List<String> names = new ArrayList<>(catalogSize);
+        List<Beer> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        BeerType[] types = BeerType.values();
+        for (int i = 0; i < catalogSize; i++) {
+            String name = "Beer " + i;
+            names.add(name);
+            batch.add(new Beer(null, name, "Brand " + (i % 100), 500, i % 100, types[i % types.length], null));
+            if (batch.size() == SEED_BATCH_SIZE) {
+                beerRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        beerRepository.saveAll(batch);
+        return names;
+    }
+}
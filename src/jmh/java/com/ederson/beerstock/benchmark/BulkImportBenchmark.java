@@ -0,0 +1,75 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.exception.BeerAlreadyRegisteredException;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkImportBenchmark {
+    private static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerRepository beerRepository;
+    private List<BeerDTO> beers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        beers = new ArrayList<>(ROWS);
+        BeerType[] types = BeerType.values();
+        for (int i = 0; i < ROWS; i++) {
+            beers.add(new BeerDTO(null, "Beer " + i, "Brand " + (i % 100), 500, i % 100, types[i % types.length]));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearCatalog() {
+        beerRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createOneByOne() throws BeerAlreadyRegisteredException {
+        for (BeerDTO beer : beers) {
+            beerService.createBeer(beer);
+        }
+        return beers.size();
+    }
+
+    @Benchmark
+    public BeerImportResultDTO createBeers() {
+        return beerService.createBeers(beers);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.exception.BeerConcurrentUpdateException;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.retry.ConflictRetryAspect;
+import com.ederson.beerstock.service.BeerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ContentionBenchmark {
+
+    private static final int[] WRITER_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private MeterRegistry meterRegistry;
+    private Long hotBeerId;
+    private int threads;
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        hotBeerId = context.getBean(BeerRepository.class)
+                .save(new Beer(null, "Hot Beer", "Brand", 500, 0, BeerType.IPA, null))
+                .getId();
+        threads = params.getThreads();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        double retried = conflicts("retried");
+        double exhausted = conflicts("exhausted");
+        long attempts = updates.sum() + rejected.sum() + (long) retried;
+        System.out.printf("%nthreads=%d updates=%d rejected=%d retries=%.0f retry rate=%.3f per attempt%n",
+                threads, updates.sum(), rejected.sum(), retried, attempts == 0 ? 0.0 : (retried + exhausted) / attempts);
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO update() throws Exception {
+        BeerDTO beerDTO = new BeerDTO(hotBeerId, "Hot Beer", "Brand", 400 + (int) (Thread.currentThread().getId() % 100), 0, BeerType.IPA);
+        try {
+            BeerDTO updated = beerService.updateBeer(hotBeerId, beerDTO);
+            updates.increment();
+            return updated;
+        } catch (BeerConcurrentUpdateException e) {
+            rejected.increment();
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StringBuilder summary = new StringBuilder(String.format("%8s %14s%n", "threads", "updates/s"));
+        for (int threads : WRITER_THREADS) {
+            RunResult result = new Runner(new OptionsBuilder()
+                    .include(ContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).runSingle();
+            summary.append(String.format("%8d %14.1f%n", threads, result.getPrimaryResult().getScore()));
+        }
+        System.out.print(summary);
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.find(ConflictRetryAspect.CONFLICTS_COUNTER).tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.enums.BeerFileFormat;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerFileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FileImportBenchmark {
+    private static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private BeerFileService beerFileService;
+    private BeerRepository beerRepository;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        beerFileService = context.getBean(BeerFileService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        csv = Files.createTempFile("beers", ".csv");
+        BeerType[] types = BeerType.values();
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("name,brand,max,quantity,type\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("Beer " + i + ",Brand " + (i % 100) + ",500," + (i % 100) + "," + types[i % types.length] + "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        context.close();
+    }
+
+    @State(Scope.Benchmark)
+    public static class EmptyCatalog {
+        @Setup(Level.Iteration)
+        public void clearCatalog(FileImportBenchmark benchmark) {
+            benchmark.beerRepository.deleteAllInBatch();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FullCatalog {
+        @Setup(Level.Iteration)
+        public void fillCatalog(FileImportBenchmark benchmark) throws IOException {
+            if (benchmark.beerRepository.count() != ROWS) {
+                benchmark.beerRepository.deleteAllInBatch();
+                benchmark.importCsv();
+            }
+        }
+    }
+
+    @Benchmark
+    public BeerFileImportResultDTO importIntoEmptyCatalog(EmptyCatalog catalog) throws IOException {
+        return importCsv();
+    }
+
+    @Benchmark
+    public BeerFileImportResultDTO reimportUnchanged(FullCatalog catalog) throws IOException {
+        return importCsv();
+    }
+
+    @Benchmark
+    public long exportCsv(FullCatalog catalog) throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        beerFileService.exportBeers(BeerFileFormat.CSV, outputStream);
+        return outputStream.count;
+    }
+
+    private BeerFileImportResultDTO importCsv() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(csv)) {
+            return beerFileService.importBeers(BeerFileFormat.CSV, inputStream);
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindByNameBenchmark {
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerRepository beerRepository;
+    private BeerMapper beerMapper;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        beerMapper = context.getBean(BeerMapper.class);
+        names = BenchmarkContext.seedCatalog(beerRepository, catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO cached() throws BeerNotFoundException {
+        return beerService.findByName(randomName());
+    }
+
+    @Benchmark
+    public BeerDTO uncached() {
+        return beerRepository.findByName(randomName())
+                .map(beerMapper::toDTO)
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private String randomName() {
+        return names.get(ThreadLocalRandom.current().nextInt(names.size()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IncrementBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private Long hotBeerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        Beer hotBeer = context.getBean(BeerRepository.class)
+                .save(new Beer(null, "Hot Beer", "Brand", Integer.MAX_VALUE, 0, BeerType.IPA, null));
+        hotBeerId = hotBeer.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO increment() throws BeerNotFoundException, BeerStockExceededException {
+        return beerService.increment(hotBeerId, 1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.ederson.beerstock.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class LoadTest {
+    private static final int MAX_SAMPLES = 20_000_000;
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+            .build();
+    private final String baseUrl;
+    private final int catalogSize;
+    private final long[] samples = new long[MAX_SAMPLES];
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong limited = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile long deadline;
+
+    private LoadTest(String baseUrl, int catalogSize) {
+        this.baseUrl = baseUrl;
+        this.catalogSize = catalogSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/api/beers";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int catalogSize = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        LoadTest loadTest = new LoadTest(baseUrl, catalogSize);
+        loadTest.seedCatalog();
+        loadTest.run(clients, seconds, warmupSeconds);
+        System.exit(0);
+    }
+
+    private void seedCatalog() throws Exception {
+        StringJoiner beers = new StringJoiner(",", "{\"beers\":[", "]}");
+        for (int i = 0; i < catalogSize; i++) {
+            beers.add("{\"name\":\"Load " + i + "\",\"brand\":\"Brand " + (i % 50) + "\",\"max\":500,\"quantity\":50,\"type\":\"LAGER\"}");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header(CLIENT_HEADER, "load-seed")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(beers.toString()))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Catalog seeding failed with status " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private void run(int clients, int seconds, int warmupSeconds) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        deadline = start + TimeUnit.SECONDS.toNanos(warmupSeconds + seconds);
+        for (int client = 0; client < clients; client++) {
+            next(client, 0, finished);
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        measuring = true;
+        long measureStart = System.nanoTime();
+        finished.await();
+        long elapsed = System.nanoTime() - measureStart;
+        report(clients, elapsed);
+    }
+
+    private void next(int client, int iteration, CountDownLatch finished) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            finished.countDown();
+            return;
+        }
+        boolean recorded = measuring;
+        httpClient.sendAsync(request(client, iteration), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (recorded) {
+                        record(System.nanoTime() - start, error == null ? response.statusCode() : -1);
+                    }
+                    next(client, iteration + 1, finished);
+                });
+    }
+
+    private HttpRequest request(int client, int iteration) {
+        return requestBuilder(client, iteration)
+                .header(CLIENT_HEADER, "load-" + client)
+                .build();
+    }
+
+    private HttpRequest.Builder requestBuilder(int client, int iteration) {
+        String name = "Load%20" + ((client * 31 + iteration) % catalogSize);
+        switch (iteration % 10) {
+            case 0:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/search?brand=Brand%20" + (client % 50) + "&maxQuantity=60&limit=20"));
+            case 5:
+                int delta = (iteration / 10) % 2 == 0 ? 1 : -1;
+                long id = 1 + (client % catalogSize);
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/stock-movements"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"movements\":[{\"id\":" + id + ",\"delta\":" + delta + "}]}"));
+            default:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/" + name));
+        }
+    }
+
+    private void record(long latency, int status) {
+        if (status == TOO_MANY_REQUESTS || status == SERVICE_UNAVAILABLE) {
+            limited.incrementAndGet();
+        } else if (status < 0 || status >= 400) {
+            failures.incrementAndGet();
+        }
+        int index = sampleCount.getAndIncrement();
+        if (index < MAX_SAMPLES) {
+            samples[index] = latency;
+        }
+    }
+
+    private void report(int clients, long elapsedNanos) {
+        int count = Math.min(sampleCount.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double throughput = sampleCount.get() * 1e9 / elapsedNanos;
+        System.out.printf("clients=%d requests=%d failures=%d limited=%d throughput=%.0f req/s p50=%.2f p95=%.2f p99=%.2f p99.9=%.2f max=%.2f ms%n",
+                clients, sampleCount.get(), failures.get(), limited.get(), throughput,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.service.LocationStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class LocationContentionBenchmark {
+
+    private static final int[] WRITER_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private LocationStockService locationStockService;
+    private Long hotBeerId;
+    private final AtomicInteger locations = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        locationStockService = context.getBean(LocationStockService.class);
+        hotBeerId = context.getBean(BeerRepository.class)
+                .save(new Beer(null, "Hot Beer", "Brand", 500, 250, BeerType.IPA, null))
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Location {
+
+        private String name;
+
+        @Setup(Level.Trial)
+        public void setUp(LocationContentionBenchmark benchmark) throws Exception {
+            name = "warehouse-" + benchmark.locations.incrementAndGet();
+            benchmark.locationStockService.openLocation(benchmark.hotBeerId, new BeerStockDTO(name, 500, 0));
+        }
+    }
+
+    @Benchmark
+    public BeerDTO singleRow() throws Exception {
+        beerService.increment(hotBeerId, 1);
+        return beerService.decrement(hotBeerId, 1);
+    }
+
+    @Benchmark
+    public BeerStockDTO partitioned(Location location) throws Exception {
+        locationStockService.increment(hotBeerId, location.name, 1);
+        return locationStockService.decrement(hotBeerId, location.name, 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        StringBuilder summary = new StringBuilder(String.format("%8s %16s %16s%n", "threads", "single row/s", "partitioned/s"));
+        for (int threads : WRITER_THREADS) {
+            Collection<RunResult> results = new Runner(new OptionsBuilder()
+                    .include(LocationContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            Map<String, Double> scores = new LinkedHashMap<>();
+            for (RunResult result : results) {
+                String label = result.getParams().getBenchmark();
+                scores.put(label.substring(label.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+            }
+            summary.append(String.format("%8d %16.1f %16.1f%n", threads, scores.get("singleRow"), scores.get("partitioned")));
+        }
+        System.out.print(summary);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ederson.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public final class RegressionCheck {
+    private static final double DEFAULT_TOLERANCE_PERCENT = 10.0;
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+
+    private RegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null || before.value == 0) {
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = (after.value - before.value) * 100.0 / before.value;
+            double worsening = after.higherIsBetter ? -change : change;
+            boolean regressed = worsening > tolerance;
+            System.out.printf("%-8s %-90s %14.3f -> %14.3f %-12s %+7.1f%%%n",
+                    regressed ? "REGRESS" : "ok", entry.getKey(), before.value, after.value, after.unit, change);
+            if (regressed) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed more than %.1f%%%n", regressions, tolerance);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String key = run.get("benchmark").asText() + " " + run.get("mode").asText() + params(run.get("params"));
+            boolean throughput = "thrpt".equals(run.get("mode").asText());
+            JsonNode primary = run.get("primaryMetric");
+            scores.put(key, new Score(primary.get("score").asDouble(), primary.get("scoreUnit").asText(), throughput));
+            JsonNode allocation = run.path("secondaryMetrics").get(ALLOCATION_METRIC);
+            if (allocation != null) {
+                scores.put(key + " alloc", new Score(allocation.get("score").asDouble(), allocation.get("scoreUnit").asText(), false));
+            }
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            builder.append(' ').append(field.getKey()).append('=').append(field.getValue().asText());
+        }
+        return builder.toString();
+    }
+
+    private static final class Score {
+        private final double value;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        private Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String BRAND = "Brand 7";
+    private static final int MAX_QUANTITY = 9;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerSearchDTO filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        BenchmarkContext.seedCatalog(context.getBean(BeerRepository.class), catalogSize);
+        filter = BeerSearchDTO.builder().brand(BRAND).type(BeerType.IPA).maxQuantity(MAX_QUANTITY).limit(1000).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerDTO> listAllAndFilter() {
+        return beerService.listAll().stream()
+                .filter(beer -> BRAND.equals(beer.getBrand()))
+                .filter(beer -> beer.getType() == BeerType.IPA)
+                .filter(beer -> beer.getQuantity() <= MAX_QUANTITY)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BeerPageDTO search() {
+        return beerService.search(filter);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.store.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class StockStoreBenchmark {
+
+    @Param({"jpa", "off-heap"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private StockStore stockStore;
+    private Long hotBeerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("beerstock.store.engine=" + engine,
+                "beerstock.store.log-dir=" + Files.createTempDirectory("stock-store"));
+        beerService = context.getBean(BeerService.class);
+        stockStore = context.getBean(StockStore.class);
+        hotBeerId = beerService.createBeer(new BeerDTO(null, "Hot Beer", "Brand", Integer.MAX_VALUE, 0, BeerType.IPA)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO storeIncrement() throws Exception {
+        return stockStore.applyQuantityDelta(hotBeerId, 1);
+    }
+
+    @Benchmark
+    public BeerDTO serviceIncrement() throws Exception {
+        return beerService.increment(hotBeerId, 1);
+    }
+}
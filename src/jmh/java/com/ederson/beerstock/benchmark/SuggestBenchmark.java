@@ -0,0 +1,76 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerSuggestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SuggestBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"beer 4242", "bere 4242", "brand 7"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private BeerSuggestService beerSuggestService;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        beerSuggestService = context.getBean(BeerSuggestService.class);
+        BenchmarkContext.seedCatalog(context.getBean(BeerRepository.class), catalogSize);
+        beerSuggestService.initialize();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerSuggestionDTO> suggest() {
+        return beerSuggestService.suggest(query, LIMIT);
+    }
+
+    @Benchmark
+    public List<Beer> sqlLike() {
+        List<Beer> beers = entityManager.createQuery("select b from Beer b where lower(b.name) like :q or lower(b.brand) like :q", Beer.class)
+                .setParameter("q", "%" + query.toLowerCase() + "%")
+                .setMaxResults(LIMIT)
+                .getResultList();
+        entityManager.clear();
+        return beers;
+    }
+}
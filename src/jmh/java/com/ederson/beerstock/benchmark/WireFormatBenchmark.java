@@ -0,0 +1,94 @@
+package com.ederson.beerstock.benchmark;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.enums.BeerType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<BeerDTO>> BEER_LIST = new TypeReference<List<BeerDTO>>() {
+    };
+
+    @Param({"10000"})
+    private int beers;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private List<BeerDTO> listing;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonMapper = new ObjectMapper();
+        cborMapper = new ObjectMapper(new CBORFactory());
+        smileMapper = new ObjectMapper(new SmileFactory());
+        BeerType[] types = BeerType.values();
+        listing = new ArrayList<>(beers);
+        for (int i = 0; i < beers; i++) {
+            listing.add(new BeerDTO((long) i + 1, "Beer " + i, "Brand " + i % 50, 500, i % 500, types[i % types.length]));
+        }
+        json = jsonMapper.writeValueAsBytes(listing);
+        cbor = cborMapper.writeValueAsBytes(listing);
+        smile = smileMapper.writeValueAsBytes(listing);
+        System.out.printf("%n%d beers: JSON %d bytes, CBOR %d bytes (%.1f%%), Smile %d bytes (%.1f%%)%n", beers, json.length,
+                cbor.length, cbor.length * 100.0 / json.length, smile.length, smile.length * 100.0 / json.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] serializeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserializeJson() throws IOException {
+        return jsonMapper.readValue(json, BEER_LIST);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserializeCbor() throws IOException {
+        return cborMapper.readValue(cbor, BEER_LIST);
+    }
+
+    @Benchmark
+    public List<BeerDTO> deserializeSmile() throws IOException {
+        return smileMapper.readValue(smile, BEER_LIST);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ederson.beerstock.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BEERS_BY_NAME = "beersByName";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${beerstock.cache.spec}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BEERS_BY_NAME);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
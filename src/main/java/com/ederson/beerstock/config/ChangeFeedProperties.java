@@ -0,0 +1,13 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.changes")
+public class ChangeFeedProperties {
+
+    private Duration retention = Duration.ofDays(7);
+}
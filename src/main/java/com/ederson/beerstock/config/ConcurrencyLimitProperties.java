@@ -0,0 +1,23 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 100;
+
+    private Duration latencyTarget = Duration.ofMillis(250);
+
+    private double backoffRatio = 0.9;
+}
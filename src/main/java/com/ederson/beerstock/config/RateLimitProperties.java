@@ -0,0 +1,46 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String clientHeader = "X-Client-Id";
+
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private int maxClients = 10_000;
+
+    private double rate = 50;
+
+    private int burst = 100;
+
+    private Map<String, Bucket> endpoints = new HashMap<>();
+
+    public double rateOf(String endpoint) {
+        Bucket bucket = endpoints.get(endpoint);
+        return bucket == null || bucket.getRate() == null ? rate : bucket.getRate();
+    }
+
+    public int burstOf(String endpoint) {
+        Bucket bucket = endpoints.get(endpoint);
+        return bucket == null || bucket.getBurst() == null ? burst : bucket.getBurst();
+    }
+
+    @Data
+    public static class Bucket {
+
+        private Double rate;
+
+        private Integer burst;
+    }
+}
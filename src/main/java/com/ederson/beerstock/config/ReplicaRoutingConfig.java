@@ -0,0 +1,46 @@
+package com.ederson.beerstock.config;
+
+import com.ederson.beerstock.routing.ReadYourWrites;
+import com.ederson.beerstock.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "beerstock.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaRoutingProperties replicaRoutingProperties) {
+        return new ReadYourWrites(replicaRoutingProperties);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaRoutingProperties replicaRoutingProperties,
+                                                             ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metricsTrackerFactory);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : replicaRoutingProperties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (replicas.size() + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() == null ? dataSourceProperties.determineUsername() : replica.getUsername());
+            dataSource.setPassword(replica.getPassword() == null ? dataSourceProperties.determinePassword() : replica.getPassword());
+            dataSource.setMaximumPoolSize(replicaRoutingProperties.getReplicaPoolSize());
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites, meterRegistry);
+    }
+}
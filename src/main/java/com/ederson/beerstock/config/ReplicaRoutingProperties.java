@@ -0,0 +1,35 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private int replicaPoolSize = 10;
+
+    private Duration stickiness = Duration.ofSeconds(2);
+
+    private String clientHeader = "X-Client-Id";
+
+    private int maxClients = 10_000;
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
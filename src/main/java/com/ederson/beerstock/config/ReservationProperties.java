@@ -0,0 +1,15 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.reservations")
+public class ReservationProperties {
+
+    private Duration ttl = Duration.ofMinutes(15);
+
+    private Duration maxTtl = Duration.ofHours(1);
+}
@@ -0,0 +1,17 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 5;
+
+    private Duration initialBackoff = Duration.ofMillis(5);
+
+    private Duration maxBackoff = Duration.ofMillis(100);
+}
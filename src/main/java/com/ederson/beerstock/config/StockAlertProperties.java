@@ -0,0 +1,17 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.alerts")
+public class StockAlertProperties {
+
+    private int bufferSize = 256;
+
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,13 @@
+package com.ederson.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.ledger")
+public class StockLedgerProperties {
+
+    private long compactionMinMovements = 100;
+
+    private int compactionBatchSize = 500;
+}
@@ -0,0 +1,26 @@
+package com.ederson.beerstock.config;
+
+import com.ederson.beerstock.enums.StockStoreEngine;
+import com.ederson.beerstock.enums.WriteBehindDurability;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.store")
+public class StockStoreProperties {
+
+    private StockStoreEngine engine = StockStoreEngine.JPA;
+
+    private int capacity = 1_000_000;
+
+    private Duration checkpointInterval = Duration.ofSeconds(1);
+
+    private WriteBehindDurability durability = WriteBehindDurability.JOURNAL;
+
+    private String logDir = "data/stock-store";
+
+    private DataSize logSegmentSize = DataSize.ofMegabytes(64);
+}
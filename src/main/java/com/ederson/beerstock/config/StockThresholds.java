@@ -0,0 +1,28 @@
+package com.ederson.beerstock.config;
+
+import com.ederson.beerstock.enums.StockLevel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.stock")
+public class StockThresholds {
+
+    private double nearMaxRatio = 0.9;
+
+    private int lowQuantity = 5;
+
+    public boolean isNearMax(int quantity, int max) {
+        return max > 0 && quantity >= max * nearMaxRatio;
+    }
+
+    public StockLevel levelOf(int quantity, int max) {
+        if (quantity == 0) {
+            return StockLevel.EMPTY;
+        }
+        if (isNearMax(quantity, max)) {
+            return StockLevel.NEAR_MAX;
+        }
+        return quantity <= lowQuantity ? StockLevel.LOW : StockLevel.NORMAL;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ederson.beerstock.config;
+
+import com.ederson.beerstock.enums.WriteBehindDurability;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    private WriteBehindDurability durability = WriteBehindDurability.JOURNAL;
+
+    private String journalDir = "data/write-behind";
+}
@@ -1,51 +1,357 @@
 package com.ederson.beerstock.controller;
 
 
+import com.ederson.beerstock.dto.BeerBatchDTO;
+import com.ederson.beerstock.dto.BeerChangePageDTO;
 import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.dto.BeerLocationsDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.dto.InventoryAggregatesDTO;
 import com.ederson.beerstock.dto.QuantityDTO;
+import com.ederson.beerstock.dto.StockLedgerPageDTO;
+import com.ederson.beerstock.dto.StockMovementBatchDTO;
+import com.ederson.beerstock.dto.StockMovementResultDTO;
+import com.ederson.beerstock.dto.StockQuantityDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.dto.StockReservationRequestDTO;
+import com.ederson.beerstock.dto.StockTransferDTO;
+import com.ederson.beerstock.enums.BeerFileFormat;
 import com.ederson.beerstock.exception.BeerAlreadyRegisteredException;
 import com.ederson.beerstock.exception.BeerNotFoundException;
 import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.ChangeFeedExpiredException;
+import com.ederson.beerstock.exception.LocationAlreadyRegisteredException;
+import com.ederson.beerstock.exception.LocationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotHeldException;
+import com.ederson.beerstock.ratelimit.RateLimited;
+import com.ederson.beerstock.service.BeerFileService;
 import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.service.BeerSuggestService;
+import com.ederson.beerstock.service.CatalogVersion;
+import com.ederson.beerstock.service.ChangeFeedService;
+import com.ederson.beerstock.service.InventoryAggregateService;
+import com.ederson.beerstock.service.LocationStockService;
+import com.ederson.beerstock.service.StockAlertService;
+import com.ederson.beerstock.service.StockLedgerService;
+import com.ederson.beerstock.service.StockReservationService;
+import com.ederson.beerstock.writebehind.StockWriteBehindService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/beers")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+    private static final List<MediaType> STREAM_MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE, TEXT_CSV, APPLICATION_NDJSON);
+    private static final List<MediaType> CATALOG_MEDIA_TYPES = Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
     private final BeerService beerService;
+    private final BeerFileService beerFileService;
+    private final BeerSuggestService beerSuggestService;
+    private final StockAlertService stockAlertService;
+    private final StockLedgerService stockLedgerService;
+    private final StockReservationService stockReservationService;
+    private final CatalogVersion catalogVersion;
+    private final ChangeFeedService changeFeedService;
+    private final InventoryAggregateService inventoryAggregateService;
+    private final LocationStockService locationStockService;
+    private final StockWriteBehindService stockWriteBehindService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited("create")
     public BeerDTO createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         return beerService.createBeer(beerDTO);
     }
 
-    @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    @PostMapping("/bulk")
+    @RateLimited("bulk")
+    public BeerImportResultDTO createBeers(@RequestBody @Valid BeerBatchDTO beerBatchDTO) {
+        return beerService.createBeers(beerBatchDTO.getBeers());
+    }
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    @RateLimited("bulk")
+    public BeerFileImportResultDTO importBeers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) throws IOException {
+        return beerFileService.importBeers(fileFormat(MediaType.parseMediaType(contentType)), inputStream);
+    }
+
+    @GetMapping(value = "/{name}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public BeerDTO findByName(@PathVariable String name, NativeWebRequest webRequest) throws BeerNotFoundException {
+        return readCatalog(webRequest, false, () -> beerService.findByName(name));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public List<BeerDTO> listBeers(NativeWebRequest webRequest) {
+        return readCatalog(webRequest, true, beerService::listAll);
+    }
+
+    @GetMapping(params = "limit", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public BeerPageDTO listBeersPage(@RequestParam(required = false) Long after, @RequestParam int limit, NativeWebRequest webRequest) {
+        return readCatalog(webRequest, true, () -> beerService.listPage(after, limit));
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public BeerPageDTO searchBeers(@Valid BeerSearchDTO beerSearchDTO, NativeWebRequest webRequest) {
+        return readCatalog(webRequest, true, () -> beerService.search(beerSearchDTO));
+    }
+
+    @GetMapping("/suggest")
+    public List<BeerSuggestionDTO> suggestBeers(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return beerSuggestService.suggest(q, limit);
+    }
+
+    @GetMapping("/changes")
+    public BeerChangePageDTO listChanges(@RequestParam(required = false) Long since, @RequestParam(defaultValue = "100") int limit) throws ChangeFeedExpiredException {
+        return changeFeedService.listChanges(since, limit);
+    }
+
+    @GetMapping(value = "/aggregates", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public InventoryAggregatesDTO aggregates(NativeWebRequest webRequest) {
+        return readCatalog(webRequest, false, inventoryAggregateService::aggregates);
     }
 
-    @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE, TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamBeers(@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+        MediaType mediaType = negotiate(accept, STREAM_MEDIA_TYPES);
+        if (TEXT_CSV.equals(mediaType) || APPLICATION_NDJSON.equals(mediaType)) {
+            BeerFileFormat format = fileFormat(mediaType);
+            return ResponseEntity.ok().contentType(mediaType).body(outputStream -> beerFileService.exportBeers(format, outputStream));
+        }
+        JsonFactory factory = streamFactory(mediaType);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = factory.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                beerService.streamAll(beerDTO -> writeBeer(generator, beerDTO));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    @GetMapping(value = "/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockAlerts() {
+        return stockAlertService.subscribe();
+    }
+
+    @PutMapping("/{id}")
+    @RateLimited("update")
+    public BeerDTO updateBeer(@PathVariable Long id, @RequestBody @Valid BeerDTO beerDTO) throws BeerNotFoundException, BeerAlreadyRegisteredException, BeerStockExceededException {
+        return beerService.updateBeer(id, beerDTO);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
+    @RateLimited("delete")
     public void deleteById(@PathVariable Long id) throws BeerNotFoundException {
         beerService.deleteById(id);
     }
 
     @PatchMapping("/{id}/increment")
-    public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException, BeerStockExceededException {
+    @RateLimited("increment")
+    public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
+        if (stockWriteBehindService.isEnabled()) {
+            return stockWriteBehindService.increment(id, quantityDTO.getQuantity());
+        }
         return beerService.increment(id, quantityDTO.getQuantity());
     }
+
+    @GetMapping("/{id}/movements")
+    public StockLedgerPageDTO listStockMovements(@PathVariable Long id, @RequestParam(required = false) Long after, @RequestParam(defaultValue = "100") int limit) {
+        return stockLedgerService.listMovements(id, after, limit);
+    }
+
+    @GetMapping("/{id}/quantity")
+    public StockQuantityDTO quantityAt(@PathVariable Long id, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return stockLedgerService.quantityAt(id, at == null ? Instant.now() : at);
+    }
+
+    @PostMapping("/stock-movements")
+    @RateLimited("stock-movements")
+    public List<StockMovementResultDTO> applyStockMovements(@RequestBody @Valid StockMovementBatchDTO stockMovementBatchDTO) {
+        return beerService.applyMovements(stockMovementBatchDTO.getMovements());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    @RateLimited("decrement")
+    public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockInsufficientException {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited("reserve")
+    public StockReservationDTO reserve(@PathVariable Long id, @RequestBody @Valid StockReservationRequestDTO stockReservationRequestDTO) throws BeerNotFoundException, BeerStockInsufficientException {
+        return stockReservationService.reserve(id, stockReservationRequestDTO.getQuantity(), stockReservationRequestDTO.getTtl());
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    @RateLimited("reservation")
+    public StockReservationDTO commitReservation(@PathVariable Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException, BeerStockInsufficientException {
+        return stockReservationService.commit(reservationId);
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    @RateLimited("reservation")
+    public StockReservationDTO releaseReservation(@PathVariable Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException {
+        return stockReservationService.release(reservationId);
+    }
+
+    @PostMapping("/{id}/locations")
+    @ResponseStatus(HttpStatus.CREATED)
+    @RateLimited("location")
+    public BeerStockDTO openLocation(@PathVariable Long id, @RequestBody @Valid BeerStockDTO beerStockDTO) throws BeerNotFoundException, LocationAlreadyRegisteredException, BeerStockExceededException, BeerStockInsufficientException {
+        return locationStockService.openLocation(id, beerStockDTO);
+    }
+
+    @GetMapping("/{id}/locations")
+    public BeerLocationsDTO listLocations(@PathVariable Long id) throws BeerNotFoundException {
+        return locationStockService.listLocations(id);
+    }
+
+    @PatchMapping("/{id}/locations/{location}/increment")
+    @RateLimited("location-increment")
+    public BeerStockDTO incrementLocation(@PathVariable Long id, @PathVariable String location, @RequestBody @Valid QuantityDTO quantityDTO) throws LocationNotFoundException, BeerStockExceededException {
+        return locationStockService.increment(id, location, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/locations/{location}/decrement")
+    @RateLimited("location-decrement")
+    public BeerStockDTO decrementLocation(@PathVariable Long id, @PathVariable String location, @RequestBody @Valid QuantityDTO quantityDTO) throws LocationNotFoundException, BeerStockInsufficientException {
+        return locationStockService.decrement(id, location, quantityDTO.getQuantity());
+    }
+
+    @PostMapping("/{id}/transfers")
+    @RateLimited("transfer")
+    public List<BeerStockDTO> transfer(@PathVariable Long id, @RequestBody @Valid StockTransferDTO stockTransferDTO) throws LocationNotFoundException, BeerStockInsufficientException, BeerStockExceededException {
+        return locationStockService.transfer(id, stockTransferDTO);
+    }
+
+    /**
+     * Answers a conditional catalog read. A tag of the current catalog version is answered without reading, but
+     * bodies read from a replica that may lag behind that version are tagged by their content instead. Either tag
+     * names the negotiated media type, since each one is a different representation of the same catalog.
+     */
+    private <T, E extends Exception> T readCatalog(NativeWebRequest webRequest, boolean databaseRead, CatalogRead<T, E> read) throws E {
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        MediaType mediaType = negotiate(accept == null ? MediaType.ALL_VALUE : accept, CATALOG_MEDIA_TYPES);
+        String version = representationTag(catalogVersion.etag(), mediaType);
+        if (ifNoneMatch(webRequest).contains(version)) {
+            webRequest.checkNotModified(version);
+            return null;
+        }
+        boolean replicaRead = databaseRead && catalogVersion.isReplicaRead();
+        T body = read.read();
+        String etag = replicaRead ? representationTag(contentTag(body), mediaType) : version;
+        return webRequest.checkNotModified(etag) ? null : body;
+    }
+
+    private static String representationTag(String etag, MediaType mediaType) {
+        return etag.substring(0, etag.length() - 1) + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    private static List<String> ifNoneMatch(NativeWebRequest webRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        String[] values = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (values != null) {
+            headers.put(HttpHeaders.IF_NONE_MATCH, Arrays.asList(values));
+        }
+        return headers.getIfNoneMatch()
+                .stream()
+                .map(etag -> etag.startsWith("W/") ? etag.substring(2) : etag)
+                .collect(Collectors.toList());
+    }
+
+    private String contentTag(Object body) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MediaType negotiate(String accept, List<MediaType> producibleMediaTypes) {
+        List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            for (MediaType producibleMediaType : producibleMediaTypes) {
+                if (acceptedMediaType.includes(producibleMediaType)) {
+                    return producibleMediaType;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static BeerFileFormat fileFormat(MediaType mediaType) {
+        return TEXT_CSV.isCompatibleWith(mediaType) ? BeerFileFormat.CSV : BeerFileFormat.NDJSON;
+    }
+
+    private JsonFactory streamFactory(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.equals(mediaType)) {
+            return new CBORFactory(objectMapper);
+        }
+        if (APPLICATION_SMILE.equals(mediaType)) {
+            return new SmileFactory(objectMapper);
+        }
+        return objectMapper.getFactory();
+    }
+
+    private void writeBeer(JsonGenerator generator, BeerDTO beerDTO) {
+        try {
+            generator.writeObject(beerDTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CatalogRead<T, E extends Exception> {
+        T read() throws E;
+    }
 }
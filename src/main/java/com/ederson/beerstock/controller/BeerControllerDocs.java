@@ -1,14 +1,47 @@
 package com.ederson.beerstock.controller;
 
+import com.ederson.beerstock.dto.BeerBatchDTO;
+import com.ederson.beerstock.dto.BeerChangePageDTO;
 import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.dto.BeerLocationsDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.dto.InventoryAggregatesDTO;
+import com.ederson.beerstock.dto.QuantityDTO;
+import com.ederson.beerstock.dto.StockLedgerPageDTO;
+import com.ederson.beerstock.dto.StockMovementBatchDTO;
+import com.ederson.beerstock.dto.StockMovementResultDTO;
+import com.ederson.beerstock.dto.StockQuantityDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.dto.StockReservationRequestDTO;
+import com.ederson.beerstock.dto.StockTransferDTO;
 import com.ederson.beerstock.exception.BeerAlreadyRegisteredException;
 import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.ChangeFeedExpiredException;
+import com.ederson.beerstock.exception.LocationAlreadyRegisteredException;
+import com.ederson.beerstock.exception.LocationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotHeldException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @Api("Manages beer stock")
@@ -17,27 +50,226 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Beer creation operation")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Success beer creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
+    @ApiOperation(value = "Bulk beer registration operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Number of beers created and names already registered"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerImportResultDTO createBeers(BeerBatchDTO beerBatchDTO);
+
+    @ApiOperation(value = "Creates or updates, by name, every beer of a CSV or NDJSON file, streamed in chunked transactions")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Number of beers created, updated, unchanged and rejected, with the error of each rejected line"),
+            @ApiResponse(code = 415, message = "Content type other than text/csv or application/x-ndjson."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation.")
+    })
+    BeerFileImportResultDTO importBeers(String contentType, InputStream inputStream) throws IOException;
+
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match."),
             @ApiResponse(code = 404, message = "Beer with given name not found.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    BeerDTO findByName(@PathVariable String name, NativeWebRequest webRequest) throws BeerNotFoundException;
 
     @ApiOperation(value = "Returns a list of all beers registered in the system")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match."),
+    })
+    List<BeerDTO> listBeers(NativeWebRequest webRequest);
+
+    @ApiOperation(value = "Returns a page of beers ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers and the cursor of the next page"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match."),
+    })
+    BeerPageDTO listBeersPage(@RequestParam(required = false) Long after, @RequestParam int limit, NativeWebRequest webRequest);
+
+    @ApiOperation(value = "Returns a page of beers matching brand, type, quantity range and fill ratio filters")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of matching beers and the cursor of the next page"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match."),
+            @ApiResponse(code = 400, message = "Wrong filter range value.")
+    })
+    BeerPageDTO searchBeers(BeerSearchDTO beerSearchDTO, NativeWebRequest webRequest);
+
+    @ApiOperation(value = "Returns beers whose name or brand starts with, or closely resembles, the typed text")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Best matching beers, prefix matches first")
+    })
+    List<BeerSuggestionDTO> suggestBeers(@RequestParam String q, @RequestParam(defaultValue = "10") int limit);
+
+    @ApiOperation(value = "Returns the beers created, changed or deleted after the given sequence, or only the current sequence when omitted")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Latest state of each changed beer and the sequence to resume from"),
+            @ApiResponse(code = 410, message = "Changes after the sequence were truncated, full resync required")
     })
-    List<BeerDTO> listBeers();
+    BeerChangePageDTO listChanges(@RequestParam(required = false) Long since, @RequestParam(defaultValue = "100") int limit) throws ChangeFeedExpiredException;
+
+    @ApiOperation(value = "Returns stock quantity and capacity totals per brand and per beer type")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Totals maintained incrementally on every stock change"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag sent in If-None-Match.")
+    })
+    InventoryAggregatesDTO aggregates(NativeWebRequest webRequest);
+
+    @ApiOperation(value = "Streams all beers registered in the system as a JSON, CBOR or Smile array, or as CSV or NDJSON lines, following the Accept header")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stream of all beers registered in the system"),
+    })
+    ResponseEntity<StreamingResponseBody> streamBeers(String accept);
+
+    @ApiOperation(value = "Pushes stock level changes (empty, low, normal, near max) as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stream of stock-alert events, with overflow events when a slow subscriber drops alerts"),
+    })
+    SseEmitter streamStockAlerts();
+
+    @ApiOperation(value = "Update name, brand, max and type of a beer found by a given valid Id; the stock quantity is only changed through the stock endpoints")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer updated"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value, duplicated name or max below the current stock."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 409, message = "Beer kept changing concurrently after all retries."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerDTO updateBeer(@PathVariable Long id, BeerDTO beerDTO) throws BeerNotFoundException, BeerAlreadyRegisteredException, BeerStockExceededException;
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
             @ApiResponse(code = 204, message = "Success beer deleted in the system"),
-            @ApiResponse(code = 404, message = "Beer with given id not found.")
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Increment the stock of a beer found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer stock incremented"),
+            @ApiResponse(code = 400, message = "Increment exceeds the beer max stock or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerDTO increment(@PathVariable Long id, QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException;
+
+    @ApiOperation(value = "Decrement the stock of a beer found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer stock decremented"),
+            @ApiResponse(code = 400, message = "Decrement is greater than the beer stock or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerDTO decrement(@PathVariable Long id, QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Returns a page of the stock movement ledger of a beer, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of stock movements and the cursor of the next page"),
+    })
+    StockLedgerPageDTO listStockMovements(@PathVariable Long id, @RequestParam(required = false) Long after, @RequestParam int limit);
+
+    @ApiOperation(value = "Returns the stock quantity of a beer as of a given instant, or now when omitted")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock quantity rebuilt from the latest snapshot and the movements after it"),
+    })
+    StockQuantityDTO quantityAt(@PathVariable Long id, @RequestParam(required = false) Instant at);
+
+    @ApiOperation(value = "Applies a batch of stock movements in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each stock movement, in request order"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    List<StockMovementResultDTO> applyStockMovements(StockMovementBatchDTO stockMovementBatchDTO);
+
+    @ApiOperation(value = "Holds units of a beer for checkout until the reservation is committed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Units held and reservation created"),
+            @ApiResponse(code = 400, message = "Not enough available units or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    StockReservationDTO reserve(@PathVariable Long id, StockReservationRequestDTO stockReservationRequestDTO) throws BeerNotFoundException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Takes the held units of a reservation out of stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Reservation committed"),
+            @ApiResponse(code = 404, message = "Reservation with given id not found."),
+            @ApiResponse(code = 409, message = "Reservation already committed, released or expired."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    StockReservationDTO commitReservation(@PathVariable Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Returns the held units of a reservation to available stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Reservation released"),
+            @ApiResponse(code = 404, message = "Reservation with given id not found."),
+            @ApiResponse(code = 409, message = "Reservation already committed, released or expired."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    StockReservationDTO releaseReservation(@PathVariable Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException;
+
+    @ApiOperation(value = "Opens a stock partition for a beer at a warehouse location, moving its initial units out of the central stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Location stock created"),
+            @ApiResponse(code = 400, message = "Location already registered, quantity above max, not enough central units or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerStockDTO openLocation(@PathVariable Long id, BeerStockDTO beerStockDTO) throws BeerNotFoundException, LocationAlreadyRegisteredException, BeerStockExceededException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Returns the stock of a beer per location and its total across locations")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Location stock of the beer"),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    BeerLocationsDTO listLocations(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Increments the stock of a beer at a location")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Location stock incremented"),
+            @ApiResponse(code = 400, message = "Location max exceeded or wrong field range value."),
+            @ApiResponse(code = 404, message = "Location not found for the given beer."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerStockDTO incrementLocation(@PathVariable Long id, @PathVariable String location, QuantityDTO quantityDTO) throws LocationNotFoundException, BeerStockExceededException;
+
+    @ApiOperation(value = "Decrements the stock of a beer at a location")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Location stock decremented"),
+            @ApiResponse(code = 400, message = "Not enough units at the location or wrong field range value."),
+            @ApiResponse(code = 404, message = "Location not found for the given beer."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    BeerStockDTO decrementLocation(@PathVariable Long id, @PathVariable String location, QuantityDTO quantityDTO) throws LocationNotFoundException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Atomically moves units of a beer from one location to another, where location central is the beer's own stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Units transferred, returns source and target stock"),
+            @ApiResponse(code = 400, message = "Not enough units at the source, target max exceeded or wrong field range value."),
+            @ApiResponse(code = 404, message = "Source or target location not found for the given beer."),
+            @ApiResponse(code = 429, message = "Client exceeded the request rate for this operation."),
+            @ApiResponse(code = 503, message = "Too many concurrent stock mutations, retry later.")
+    })
+    List<BeerStockDTO> transfer(@PathVariable Long id, StockTransferDTO stockTransferDTO) throws LocationNotFoundException, BeerStockInsufficientException, BeerStockExceededException;
 }
@@ -0,0 +1,22 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchDTO {
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<@Valid BeerDTO> beers;
+}
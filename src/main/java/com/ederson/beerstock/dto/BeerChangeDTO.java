@@ -0,0 +1,22 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.BeerChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChangeDTO {
+
+    private Long sequence;
+
+    private BeerChangeType type;
+
+    private Long id;
+
+    private BeerDTO beer;
+}
@@ -0,0 +1,19 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChangePageDTO {
+
+    private List<BeerChangeDTO> changes;
+
+    private Long next;
+}
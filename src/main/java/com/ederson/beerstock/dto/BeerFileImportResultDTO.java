@@ -0,0 +1,25 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerFileImportResultDTO {
+
+    private long created;
+
+    private long updated;
+
+    private long unchanged;
+
+    private long rejected;
+
+    private List<BeerImportErrorDTO> errors;
+}
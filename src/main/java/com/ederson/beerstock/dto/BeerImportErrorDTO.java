@@ -0,0 +1,17 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportErrorDTO {
+
+    private long line;
+
+    private String message;
+}
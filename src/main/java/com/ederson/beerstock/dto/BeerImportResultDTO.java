@@ -0,0 +1,19 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportResultDTO {
+
+    private int created;
+
+    private List<String> alreadyRegistered;
+}
@@ -0,0 +1,23 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerLocationsDTO {
+
+    private Long beerId;
+
+    private Integer centralQuantity;
+
+    private Long quantity;
+
+    private List<BeerStockDTO> locations;
+}
@@ -0,0 +1,46 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.BeerType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchDTO {
+
+    @Size(min = 1, max = 200)
+    private String brand;
+
+    private BeerType type;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double minFillRatio;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double maxFillRatio;
+
+    private Long after;
+
+    @Min(1)
+    @Max(1000)
+    @Builder.Default
+    private int limit = 100;
+}
@@ -0,0 +1,21 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAggregateDTO {
+
+    private String name;
+
+    private long beers;
+
+    private long quantity;
+
+    private long capacity;
+}
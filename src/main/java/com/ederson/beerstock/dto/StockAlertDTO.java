@@ -0,0 +1,31 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.StockLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Integer quantity;
+
+    private Integer max;
+
+    @Enumerated(EnumType.STRING)
+    private StockLevel previousLevel;
+
+    @Enumerated(EnumType.STRING)
+    private StockLevel level;
+}
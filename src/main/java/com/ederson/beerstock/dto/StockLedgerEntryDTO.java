@@ -0,0 +1,29 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.StockMovementKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerEntryDTO {
+
+    private Long id;
+
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    private StockMovementKind kind;
+
+    private Integer delta;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,26 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.StockMovementStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    private StockMovementStatus status;
+
+    private Integer quantity;
+}
@@ -0,0 +1,21 @@
+package com.ederson.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockQuantityDTO {
+
+    private Long beerId;
+
+    private Integer quantity;
+
+    private Instant asOf;
+}
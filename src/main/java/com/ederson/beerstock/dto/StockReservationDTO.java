@@ -0,0 +1,31 @@
+package com.ederson.beerstock.dto;
+
+import com.ederson.beerstock.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+
+    private Long id;
+
+    private Long beerId;
+
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    private Instant createdAt;
+
+    private Instant expiresAt;
+}
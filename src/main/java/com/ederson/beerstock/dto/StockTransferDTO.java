@@ -0,0 +1,36 @@
+package com.ederson.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferDTO {
+
+    @NotNull
+    private String from;
+
+    @NotNull
+    private String to;
+
+    @NotNull
+    @Min(1)
+    @Max(100)
+    private Integer quantity;
+
+    @JsonIgnore
+    @AssertTrue
+    public boolean isDistinctLocations() {
+        return from == null || !from.equals(to);
+    }
+}
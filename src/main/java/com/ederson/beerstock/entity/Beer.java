@@ -9,12 +9,18 @@ import javax.persistence.*;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_beer_brand_type_quantity", columnList = "brand, type, quantity"),
+        @Index(name = "idx_beer_type_quantity", columnList = "type, quantity"),
+        @Index(name = "idx_beer_quantity", columnList = "quantity")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+    @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -32,4 +38,7 @@ public class Beer {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
+
+    @Version
+    private Long version;
 }
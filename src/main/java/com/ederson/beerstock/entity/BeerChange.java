@@ -0,0 +1,47 @@
+package com.ederson.beerstock.entity;
+
+import com.ederson.beerstock.enums.BeerChangeType;
+import com.ederson.beerstock.enums.BeerType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_beer_change_changed_at", columnList = "changedAt"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChange {
+
+    @Id
+    private Long sequence;
+
+    @Column(nullable = false, updatable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private BeerChangeType type;
+
+    @Column(updatable = false)
+    private String name;
+
+    @Column(updatable = false)
+    private String brand;
+
+    @Column(updatable = false)
+    private Integer max;
+
+    @Column(updatable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private BeerType beerType;
+
+    @Column(nullable = false, updatable = false)
+    private Instant changedAt;
+}
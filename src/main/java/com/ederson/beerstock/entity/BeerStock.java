@@ -0,0 +1,32 @@
+package com.ederson.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_beer_stock_beer_location", columnNames = {"beerId", "location"}))
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_stock_sequence")
+    @SequenceGenerator(name = "beer_stock_sequence", sequenceName = "beer_stock_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long beerId;
+
+    @Column(nullable = false, updatable = false)
+    private String location;
+
+    @Column(nullable = false)
+    private int max;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,38 @@
+package com.ederson.beerstock.entity;
+
+import com.ederson.beerstock.enums.StockMovementKind;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_stock_movement_beer_id", columnList = "beerId, id"),
+        @Index(name = "idx_stock_movement_beer_created_at", columnList = "beerId, createdAt")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_sequence")
+    @SequenceGenerator(name = "stock_movement_sequence", sequenceName = "stock_movement_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StockMovementKind kind;
+
+    @Column(nullable = false, updatable = false)
+    private int delta;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
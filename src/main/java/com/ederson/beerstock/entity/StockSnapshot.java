@@ -0,0 +1,36 @@
+package com.ederson.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_stock_snapshot_beer_movement", columnList = "beerId, lastMovementId"),
+        @Index(name = "idx_stock_snapshot_beer_taken_at", columnList = "beerId, takenAt")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_snapshot_sequence")
+    @SequenceGenerator(name = "stock_snapshot_sequence", sequenceName = "stock_snapshot_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long beerId;
+
+    @Column(nullable = false, updatable = false)
+    private Long lastMovementId;
+
+    @Column(nullable = false, updatable = false)
+    private int quantity;
+
+    @Column(nullable = false, updatable = false)
+    private Instant takenAt;
+}
@@ -0,0 +1,22 @@
+package com.ederson.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteBehindCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long segment;
+}
@@ -0,0 +1,14 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerChangeType {
+
+    UPSERT("Beer created or changed, carries its state after the change"),
+    DELETE("Beer deleted, carries only its id");
+
+    private final String description;
+}
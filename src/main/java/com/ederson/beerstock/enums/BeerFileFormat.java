@@ -0,0 +1,14 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerFileFormat {
+
+    CSV("Comma separated values with a header row"),
+    NDJSON("One JSON beer per line");
+
+    private final String description;
+}
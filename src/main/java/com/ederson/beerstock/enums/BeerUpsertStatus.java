@@ -0,0 +1,16 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerUpsertStatus {
+
+    CREATED("Created"),
+    UPDATED("Updated"),
+    UNCHANGED("Unchanged"),
+    STOCK_INSUFFICIENT("Quantity below the reserved stock");
+
+    private final String description;
+}
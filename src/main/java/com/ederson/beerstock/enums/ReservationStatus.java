@@ -0,0 +1,16 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ReservationStatus {
+
+    HELD("Units held for checkout"),
+    COMMITTED("Held units taken out of stock"),
+    RELEASED("Held units returned to available stock"),
+    EXPIRED("Hold expired and units returned to available stock");
+
+    private final String description;
+}
@@ -0,0 +1,16 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockLevel {
+
+    EMPTY("Out of stock"),
+    LOW("Low stock"),
+    NORMAL("Normal stock"),
+    NEAR_MAX("Stock near max");
+
+    private final String description;
+}
@@ -0,0 +1,16 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockMovementKind {
+
+    CREATED("Beer registered"),
+    INCREMENT("Stock incremented"),
+    DECREMENT("Stock decremented"),
+    DELETED("Beer deleted");
+
+    private final String description;
+}
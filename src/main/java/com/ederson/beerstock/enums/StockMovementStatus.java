@@ -0,0 +1,16 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockMovementStatus {
+
+    APPLIED("Applied"),
+    NOT_FOUND("Beer not found"),
+    STOCK_EXCEEDED("Max stock exceeded"),
+    STOCK_INSUFFICIENT("Insufficient stock");
+
+    private final String description;
+}
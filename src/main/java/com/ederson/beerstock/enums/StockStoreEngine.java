@@ -0,0 +1,14 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockStoreEngine {
+
+    JPA("Stock counters are updated in the database on every change"),
+    OFF_HEAP("Stock counters live in off-heap slots and reach the database at checkpoints");
+
+    private final String description;
+}
@@ -0,0 +1,15 @@
+package com.ederson.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum WriteBehindDurability {
+
+    NONE("Acknowledged increments live only in memory until flushed"),
+    JOURNAL("Acknowledged increments are appended to a local journal and survive a process crash"),
+    FSYNC("Acknowledged increments are forced to disk and survive a host crash");
+
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package com.ederson.beerstock.event;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BeerChangedEvent {
+
+    private final BeerDTO before;
+
+    private final BeerDTO after;
+}
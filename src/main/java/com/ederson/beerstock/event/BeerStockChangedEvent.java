@@ -0,0 +1,16 @@
+package com.ederson.beerstock.event;
+
+import com.ederson.beerstock.dto.BeerStockDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BeerStockChangedEvent {
+
+    private final Long beerId;
+
+    private final BeerStockDTO before;
+
+    private final BeerStockDTO after;
+}
@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BeerConcurrentUpdateException extends RuntimeException {
+    public BeerConcurrentUpdateException(String operation, int attempts, Throwable cause) {
+        super(String.format("Operação %s não concluída após %s tentativas devido a atualizações concorrentes na mesma cerveja.", operation, attempts), cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerStockInsufficientException extends Exception{
+    public BeerStockInsufficientException (Long id, int quantityToDecrement){
+        super(String.format("Cervejas com %s ID não possuem estoque suficiente para o decremento informado: %s", id, quantityToDecrement ));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeFeedExpiredException extends Exception{
+    public ChangeFeedExpiredException(Long since){
+        super(String.format("Alterações após a sequência %s não estão mais disponíveis, sincronize o catálogo completo novamente", since));
+    }
+}
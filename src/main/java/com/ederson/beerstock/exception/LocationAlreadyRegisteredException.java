@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class LocationAlreadyRegisteredException extends Exception{
+    public LocationAlreadyRegisteredException(Long beerId, String location){
+        super(String.format("Local %s já cadastrado para a cerveja com id %s", location, beerId));
+    }
+}
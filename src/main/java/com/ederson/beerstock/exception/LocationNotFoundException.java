@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class LocationNotFoundException extends Exception{
+    public LocationNotFoundException(Long beerId, String location){
+        super(String.format("Local %s não encontrado para a cerveja com id %s.", location, beerId));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+    public RateLimitExceededException(String endpoint, String client) {
+        super(String.format("Limite de requisições para %s excedido pelo cliente %s.", endpoint, client));
+    }
+}
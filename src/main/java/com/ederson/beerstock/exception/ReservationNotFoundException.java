@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends Exception{
+    public ReservationNotFoundException(Long id){
+        super(String.format("Reserva com id %s não encontrada no sistema.", id));
+    }
+}
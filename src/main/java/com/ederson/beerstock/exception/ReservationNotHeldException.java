@@ -0,0 +1,12 @@
+package com.ederson.beerstock.exception;
+
+import com.ederson.beerstock.enums.ReservationStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReservationNotHeldException extends Exception{
+    public ReservationNotHeldException(Long id, ReservationStatus status){
+        super(String.format("Reserva com id %s não está mais ativa: %s", id, status));
+    }
+}
@@ -0,0 +1,11 @@
+package com.ederson.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String endpoint, int limit) {
+        super(String.format("Serviço sobrecarregado: %s rejeitada com %s requisições simultâneas em andamento.", endpoint, limit));
+    }
+}
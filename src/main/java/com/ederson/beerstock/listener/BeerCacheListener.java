@@ -0,0 +1,31 @@
+package com.ederson.beerstock.listener;
+
+import com.ederson.beerstock.config.CacheConfig;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerCacheListener {
+
+    private final CacheManager cacheManager;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.BEERS_BY_NAME);
+        if (event.getBefore() != null) {
+            cache.evictIfPresent(event.getBefore().getName());
+        }
+        if (event.getAfter() != null) {
+            cache.evictIfPresent(event.getAfter().getName());
+        }
+    }
+}
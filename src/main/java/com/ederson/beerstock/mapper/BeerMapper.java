@@ -3,12 +3,11 @@ package com.ederson.beerstock.mapper;
 import com.ederson.beerstock.dto.BeerDTO;
 import com.ederson.beerstock.entity.Beer;
 import org.mapstruct.Mapper;
-import org.mapstruct.factory.Mappers;
+import org.mapstruct.Mapping;
 
-@Mapper
+@Mapper(componentModel = "spring")
 public interface BeerMapper {
-    BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
-
+    @Mapping(target = "version", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
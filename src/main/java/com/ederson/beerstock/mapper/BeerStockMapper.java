@@ -0,0 +1,10 @@
+package com.ederson.beerstock.mapper;
+
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.entity.BeerStock;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface BeerStockMapper {
+    BeerStockDTO toDTO(BeerStock beerStock);
+}
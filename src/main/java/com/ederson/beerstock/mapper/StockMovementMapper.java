@@ -0,0 +1,10 @@
+package com.ederson.beerstock.mapper;
+
+import com.ederson.beerstock.dto.StockLedgerEntryDTO;
+import com.ederson.beerstock.entity.StockMovement;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StockMovementMapper {
+    StockLedgerEntryDTO toDTO(StockMovement stockMovement);
+}
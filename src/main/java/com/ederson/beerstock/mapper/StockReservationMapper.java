@@ -0,0 +1,10 @@
+package com.ederson.beerstock.mapper;
+
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.entity.StockReservation;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StockReservationMapper {
+    StockReservationDTO toDTO(StockReservation stockReservation);
+}
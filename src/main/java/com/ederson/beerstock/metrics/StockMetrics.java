@@ -0,0 +1,164 @@
+package com.ederson.beerstock.metrics;
+
+import com.ederson.beerstock.config.StockThresholds;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Lazy(false)
+public class StockMetrics {
+
+    public static final String DRIFT_COUNTER = "beerstock.stock.drift";
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockMetrics.class);
+    private static final String BEERS_GAUGE = "beerstock.stock.beers";
+    private static final int INITIAL_LOAD_ATTEMPTS = 3;
+
+    private final BeerRepository beerRepository;
+    private final StockThresholds stockThresholds;
+    private final AtomicLong beers = new AtomicLong();
+    private final AtomicLong units = new AtomicLong();
+    private final AtomicLong emptyBeers = new AtomicLong();
+    private final AtomicLong nearMaxBeers = new AtomicLong();
+    private final Counter drift;
+    private long version;
+    private long[] pendingDrift;
+
+    @Autowired
+    public StockMetrics(BeerRepository beerRepository, StockThresholds stockThresholds, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.stockThresholds = stockThresholds;
+        Gauge.builder("beerstock.stock.units", units, AtomicLong::get)
+                .description("Total units in stock")
+                .register(meterRegistry);
+        Gauge.builder(BEERS_GAUGE, beers, AtomicLong::get)
+                .tag("level", "all")
+                .description("Registered beers")
+                .register(meterRegistry);
+        Gauge.builder(BEERS_GAUGE, emptyBeers, AtomicLong::get)
+                .tag("level", "empty")
+                .description("Beers with no units in stock")
+                .register(meterRegistry);
+        Gauge.builder(BEERS_GAUGE, nearMaxBeers, AtomicLong::get)
+                .tag("level", "near_max")
+                .description("Beers with stock near their max")
+                .register(meterRegistry);
+        this.drift = meterRegistry.counter(DRIFT_COUNTER);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        for (int attempt = 0; attempt < INITIAL_LOAD_ATTEMPTS; attempt++) {
+            long observedVersion;
+            synchronized (this) {
+                observedVersion = version;
+            }
+            long[] observed = load();
+            synchronized (this) {
+                if (observedVersion == version) {
+                    set(observed);
+                    return;
+                }
+            }
+        }
+        LOGGER.warn("Stock kept changing during {} attempts to load the stock gauges, leaving them to reconciliation", INITIAL_LOAD_ATTEMPTS);
+    }
+
+    /**
+     * Reloads the gauges from the beer table once two reconciliations in a row observe the same drift without any
+     * change in between.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.metrics.reconcile-interval}")
+    public boolean reconcile() {
+        long observedVersion;
+        synchronized (this) {
+            observedVersion = version;
+        }
+        long[] observed = load();
+        synchronized (this) {
+            if (observedVersion != version || Arrays.equals(observed, current())) {
+                pendingDrift = null;
+                return false;
+            }
+            if (!Arrays.equals(observed, pendingDrift)) {
+                pendingDrift = observed;
+                return false;
+            }
+            LOGGER.warn("Stock gauges drifted from the beer table, reloading");
+            drift.increment();
+            set(observed);
+            pendingDrift = null;
+            return true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBeerChanged(BeerChangedEvent event) {
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+        version++;
+    }
+
+    public long getUnits() {
+        return units.get();
+    }
+
+    public long getEmptyBeers() {
+        return emptyBeers.get();
+    }
+
+    public long getNearMaxBeers() {
+        return nearMaxBeers.get();
+    }
+
+    private void apply(BeerDTO beer, int sign) {
+        beers.addAndGet(sign);
+        units.addAndGet(sign * (long) beer.getQuantity());
+        if (beer.getQuantity() == 0) {
+            emptyBeers.addAndGet(sign);
+        }
+        if (stockThresholds.isNearMax(beer.getQuantity(), beer.getMax())) {
+            nearMaxBeers.addAndGet(sign);
+        }
+    }
+
+    private long[] load() {
+        StockSummary summary = beerRepository.summarizeStock(stockThresholds.getNearMaxRatio());
+        return new long[]{summary.getBeers(), valueOf(summary.getUnits()), valueOf(summary.getEmpty()), valueOf(summary.getNearMax())};
+    }
+
+    private long[] current() {
+        return new long[]{beers.get(), units.get(), emptyBeers.get(), nearMaxBeers.get()};
+    }
+
+    private void set(long[] observed) {
+        beers.set(observed[0]);
+        units.set(observed[1]);
+        emptyBeers.set(observed[2]);
+        nearMaxBeers.set(observed[3]);
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+}
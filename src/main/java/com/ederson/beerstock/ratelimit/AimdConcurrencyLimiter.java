@@ -0,0 +1,84 @@
+package com.ederson.beerstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTarget;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong lastDecrease;
+    private final LongAdder rejected = new LongAdder();
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTarget, double backoffRatio, long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTarget = latencyTarget;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+        this.lastDecrease = new AtomicLong(now - latencyTarget);
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) getLimit()) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long start, long end) {
+        int concurrent = inFlight.getAndDecrement();
+        if (end - start > latencyTarget) {
+            long last = lastDecrease.get();
+            if (end - last >= latencyTarget && lastDecrease.compareAndSet(last, end)) {
+                decrease();
+            }
+        } else if (concurrent * 2 >= getLimit()) {
+            increase();
+        }
+    }
+
+    double getLimit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    LongAdder rejectedAdder() {
+        return rejected;
+    }
+
+    private void decrease() {
+        while (true) {
+            long bits = limit.get();
+            double next = Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio);
+            if (limit.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private void increase() {
+        while (true) {
+            long bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = Math.min(maxLimit, current + 1 / current);
+            if (next == current || limit.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
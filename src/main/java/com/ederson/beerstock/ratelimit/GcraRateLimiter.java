@@ -0,0 +1,67 @@
+package com.ederson.beerstock.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class GcraRateLimiter {
+
+    private final double rate;
+    private final int burst;
+    private final long emissionInterval;
+    private final long capacity;
+    private final Cache<String, AtomicLong> arrivals;
+    private final LongAdder rejected = new LongAdder();
+
+    GcraRateLimiter(double rate, int burst, int maxClients) {
+        this.rate = rate;
+        this.burst = burst;
+        this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.capacity = emissionInterval * burst;
+        // a client idle for a whole burst is back to a fresh bucket, so its entry can go
+        this.arrivals = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(capacity))
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    long tryAcquire(String client, long now) {
+        AtomicLong arrival = arrivals.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long theoretical = arrival.get();
+            long next = Math.max(theoretical, now) + emissionInterval;
+            long excess = next - now - capacity;
+            if (excess > 0) {
+                rejected.increment();
+                return excess;
+            }
+            if (arrival.compareAndSet(theoretical, next)) {
+                return 0;
+            }
+        }
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    int getBurst() {
+        return burst;
+    }
+
+    long getClients() {
+        return arrivals.estimatedSize();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    LongAdder rejectedAdder() {
+        return rejected;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ederson.beerstock.ratelimit;
+
+import com.ederson.beerstock.config.ConcurrencyLimitProperties;
+import com.ederson.beerstock.config.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LimiterRegistry {
+
+    public static final String REJECTED_COUNTER = "beerstock.limits.rejected";
+    public static final String CONCURRENCY_GAUGE = "beerstock.limits.concurrency";
+
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, GcraRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final AimdConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    public LimiterRegistry(RateLimitProperties rateLimitProperties, ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimiter = new AimdConcurrencyLimiter(concurrencyLimitProperties.getInitialLimit(), concurrencyLimitProperties.getMinLimit(), concurrencyLimitProperties.getMaxLimit(),
+                concurrencyLimitProperties.getLatencyTarget().toNanos(), concurrencyLimitProperties.getBackoffRatio(), System.nanoTime());
+        Gauge.builder(CONCURRENCY_GAUGE, concurrencyLimiter, AimdConcurrencyLimiter::getLimit)
+                .tag("value", "limit")
+                .description("Concurrent mutations admitted by the adaptive limiter")
+                .register(meterRegistry);
+        Gauge.builder(CONCURRENCY_GAUGE, concurrencyLimiter, AimdConcurrencyLimiter::getInFlight)
+                .tag("value", "in_flight")
+                .description("Mutations currently in flight")
+                .register(meterRegistry);
+        registerRejected(concurrencyLimiter.rejectedAdder(), "all", "concurrency");
+    }
+
+    GcraRateLimiter rateLimiter(String endpoint) {
+        GcraRateLimiter rateLimiter = rateLimiters.get(endpoint);
+        if (rateLimiter == null) {
+            rateLimiter = rateLimiters.computeIfAbsent(endpoint, this::createRateLimiter);
+        }
+        return rateLimiter;
+    }
+
+    AimdConcurrencyLimiter concurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    Map<String, GcraRateLimiter> rateLimiters() {
+        return rateLimiters;
+    }
+
+    private GcraRateLimiter createRateLimiter(String endpoint) {
+        GcraRateLimiter rateLimiter = new GcraRateLimiter(rateLimitProperties.rateOf(endpoint), rateLimitProperties.burstOf(endpoint), rateLimitProperties.getMaxClients());
+        registerRejected(rateLimiter.rejectedAdder(), endpoint, "rate");
+        return rateLimiter;
+    }
+
+    private void registerRejected(LongAdder rejected, String endpoint, String reason) {
+        FunctionCounter.builder(REJECTED_COUNTER, rejected, LongAdder::sum)
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .description("Requests shed by the rate and concurrency limiters")
+                .register(meterRegistry);
+    }
+}
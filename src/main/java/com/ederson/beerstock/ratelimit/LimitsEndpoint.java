@@ -0,0 +1,41 @@
+package com.ederson.beerstock.ratelimit;
+
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Endpoint(id = "limits")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LimitsEndpoint {
+
+    private final LimiterRegistry limiterRegistry;
+
+    @ReadOperation
+    public Map<String, Object> limits() {
+        AimdConcurrencyLimiter concurrencyLimiter = limiterRegistry.concurrencyLimiter();
+        Map<String, Object> concurrency = new LinkedHashMap<>();
+        concurrency.put("limit", concurrencyLimiter.getLimit());
+        concurrency.put("inFlight", concurrencyLimiter.getInFlight());
+        concurrency.put("rejected", concurrencyLimiter.getRejected());
+        Map<String, Object> endpoints = new TreeMap<>();
+        limiterRegistry.rateLimiters().forEach((endpoint, rateLimiter) -> {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("rate", rateLimiter.getRate());
+            bucket.put("burst", rateLimiter.getBurst());
+            bucket.put("clients", rateLimiter.getClients());
+            bucket.put("rejected", rateLimiter.getRejected());
+            endpoints.put(endpoint, bucket);
+        });
+        Map<String, Object> limits = new LinkedHashMap<>();
+        limits.put("concurrency", concurrency);
+        limits.put("endpoints", endpoints);
+        return limits;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ederson.beerstock.ratelimit;
+
+import com.ederson.beerstock.config.ConcurrencyLimitProperties;
+import com.ederson.beerstock.config.RateLimitProperties;
+import com.ederson.beerstock.exception.RateLimitExceededException;
+import com.ederson.beerstock.exception.ServiceOverloadedException;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LoadSheddingAspect {
+
+    private static final String LOCAL_CLIENT = "local";
+
+    private final RateLimitProperties rateLimitProperties;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final LimiterRegistry limiterRegistry;
+
+    @Around("@annotation(com.ederson.beerstock.ratelimit.RateLimited)")
+    public Object shed(ProceedingJoinPoint joinPoint) throws Throwable {
+        RateLimited rateLimited = ((MethodSignature) joinPoint.getSignature()).getMethod().getAnnotation(RateLimited.class);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        HttpServletRequest request = requestAttributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) requestAttributes).getRequest() : null;
+        HttpServletResponse response = requestAttributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) requestAttributes).getResponse() : null;
+        long start = System.nanoTime();
+        if (rateLimitProperties.isEnabled()) {
+            String client = client(request);
+            long wait = limiterRegistry.rateLimiter(rateLimited.value()).tryAcquire(client, start);
+            if (wait > 0) {
+                retryAfter(response, wait);
+                throw new RateLimitExceededException(rateLimited.value(), client);
+            }
+        }
+        if (!concurrencyLimitProperties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        AimdConcurrencyLimiter concurrencyLimiter = limiterRegistry.concurrencyLimiter();
+        if (!concurrencyLimiter.tryAcquire()) {
+            retryAfter(response, TimeUnit.SECONDS.toNanos(1));
+            throw new ServiceOverloadedException(rateLimited.value(), (int) concurrencyLimiter.getLimit());
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimiter.release(start, System.nanoTime());
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        if (request == null) {
+            return LOCAL_CLIENT;
+        }
+        String remoteAddr = request.getRemoteAddr();
+        if (!rateLimitProperties.getTrustedProxies().contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String client = request.getHeader(rateLimitProperties.getClientHeader());
+        return client == null || client.isEmpty() ? remoteAddr : client;
+    }
+
+    private static void retryAfter(HttpServletResponse response, long waitNanos) {
+        if (response != null) {
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.entity.BeerChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BeerChangeRepository extends JpaRepository<BeerChange, Long> {
+
+    List<BeerChange> findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequenceAsc(Long since, Long until, Pageable pageable);
+
+    @Query("select max(c.sequence) from BeerChange c")
+    Long findLastSequence();
+
+    @Query("select max(c.sequence) from BeerChange c where c.changedAt < :cutoff")
+    Long findLastSequenceBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("delete from BeerChange c where c.sequence <= :sequence")
+    int deleteUpTo(@Param("sequence") Long sequence);
+}
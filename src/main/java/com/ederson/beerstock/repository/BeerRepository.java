@@ -1,10 +1,79 @@
 package com.ederson.beerstock.repository;
 
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
 import com.ederson.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerSearchRepository {
+    String STREAM_FETCH_SIZE = "500";
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
     Optional<Beer> findByName(String name);
+
+    @Query("select b.name from Beer b where b.name in :names")
+    Set<String> findNamesIn(@Param("names") Collection<String> names);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.name in :names order by b.id")
+    List<Beer> findByNameInForUpdate(@Param("names") Collection<String> names);
+
+    @Query("select b.quantity from Beer b where b.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id in :ids order by b.id")
+    List<Beer> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAllOrderById();
+
+    @Query("select count(b) as beers, sum(b.quantity) as units, " +
+            "sum(case when b.quantity = 0 then 1 else 0 end) as empty, " +
+            "sum(case when b.max > 0 and b.quantity * 1.0 >= b.max * 1.0 * :nearMaxRatio then 1 else 0 end) as nearMax " +
+            "from Beer b")
+    StockSummary summarizeStock(@Param("nearMaxRatio") double nearMaxRatio);
+
+    @Query("select b.brand as name, count(b) as beers, sum(b.quantity) as quantity, sum(b.max) as capacity " +
+            "from Beer b group by b.brand")
+    List<InventoryGroup> aggregateByBrand();
+
+    @Query("select str(b.type) as name, count(b) as beers, sum(b.quantity) as quantity, sum(b.max) as capacity " +
+            "from Beer b group by b.type")
+    List<InventoryGroup> aggregateByType();
+
+    @Query("select new com.ederson.beerstock.dto.BeerSuggestionDTO(b.id, b.name, b.brand) from Beer b")
+    List<BeerSuggestionDTO> findAllSuggestions();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :delta, b.version = b.version + 1 " +
+            "where b.id = :id and b.quantity + :delta >= 0 and b.quantity + :delta <= b.max")
+    int applyQuantityDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :delta, b.version = b.version + 1 " +
+            "where b.id = :id and b.quantity + :delta >= :reserved and b.quantity + :delta <= b.max")
+    int applyQuantityDelta(@Param("id") Long id, @Param("delta") int delta, @Param("reserved") int reserved);
 }
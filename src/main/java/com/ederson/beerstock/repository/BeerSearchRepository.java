@@ -0,0 +1,11 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+
+import java.util.List;
+
+public interface BeerSearchRepository {
+
+    List<BeerDTO> search(BeerSearchDTO filter, int limit);
+}
@@ -0,0 +1,66 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.entity.Beer;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerSearchRepositoryImpl implements BeerSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BeerDTO> search(BeerSearchDTO filter, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDTO> query = builder.createQuery(BeerDTO.class);
+        Root<Beer> beer = query.from(Beer.class);
+        Expression<Integer> quantity = beer.get("quantity");
+        Expression<Integer> max = beer.get("max");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getAfter() != null) {
+            predicates.add(builder.greaterThan(beer.get("id"), filter.getAfter()));
+        }
+        if (filter.getBrand() != null) {
+            predicates.add(builder.equal(beer.get("brand"), filter.getBrand()));
+        }
+        if (filter.getType() != null) {
+            predicates.add(builder.equal(beer.get("type"), filter.getType()));
+        }
+        if (filter.getMinQuantity() != null) {
+            predicates.add(builder.ge(quantity, filter.getMinQuantity()));
+        }
+        if (filter.getMaxQuantity() != null) {
+            predicates.add(builder.le(quantity, filter.getMaxQuantity()));
+        }
+        if (filter.getMinFillRatio() != null || filter.getMaxFillRatio() != null) {
+            predicates.add(builder.gt(max, 0));
+            Expression<Double> scaledQuantity = builder.prod(quantity, 1.0d).as(Double.class);
+            if (filter.getMinFillRatio() != null) {
+                predicates.add(builder.ge(scaledQuantity, builder.prod(max, filter.getMinFillRatio()).as(Double.class)));
+            }
+            if (filter.getMaxFillRatio() != null) {
+                predicates.add(builder.le(scaledQuantity, builder.prod(max, filter.getMaxFillRatio()).as(Double.class)));
+            }
+        }
+
+        query.select(builder.construct(BeerDTO.class,
+                beer.get("id"), beer.get("name"), beer.get("brand"), max, quantity, beer.get("type")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(beer.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.entity.BeerStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BeerStockRepository extends JpaRepository<BeerStock, Long> {
+
+    Optional<BeerStock> findByBeerIdAndLocation(Long beerId, String location);
+
+    List<BeerStock> findByBeerIdOrderByLocation(Long beerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from BeerStock s where s.beerId = :beerId and s.location in :locations order by s.id")
+    List<BeerStock> findForTransfer(@Param("beerId") Long beerId, @Param("locations") Collection<String> locations);
+
+    @Query("select s.beerId as beerId, sum(s.quantity) as quantity from BeerStock s group by s.beerId")
+    List<BeerStockTotal> sumQuantityByBeer();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BeerStock s set s.quantity = s.quantity + :delta " +
+            "where s.beerId = :beerId and s.location = :location and s.quantity + :delta >= 0 and s.quantity + :delta <= s.max")
+    int applyQuantityDelta(@Param("beerId") Long beerId, @Param("location") String location, @Param("delta") int delta);
+
+    @Modifying
+    @Query("delete from BeerStock s where s.beerId = :beerId")
+    int deleteByBeerId(@Param("beerId") Long beerId);
+}
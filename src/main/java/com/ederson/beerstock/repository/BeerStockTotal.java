@@ -0,0 +1,8 @@
+package com.ederson.beerstock.repository;
+
+public interface BeerStockTotal {
+
+    Long getBeerId();
+
+    Long getQuantity();
+}
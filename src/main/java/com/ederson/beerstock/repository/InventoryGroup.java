@@ -0,0 +1,12 @@
+package com.ederson.beerstock.repository;
+
+public interface InventoryGroup {
+
+    String getName();
+
+    long getBeers();
+
+    Long getQuantity();
+
+    Long getCapacity();
+}
@@ -0,0 +1,14 @@
+package com.ederson.beerstock.repository;
+
+import java.time.Instant;
+
+public interface MovementCompaction {
+
+    Long getBeerId();
+
+    Long getLastMovementId();
+
+    Long getDelta();
+
+    Instant getTakenAt();
+}
@@ -0,0 +1,25 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByBeerIdAndIdGreaterThanOrderByIdAsc(Long beerId, Long id, Pageable pageable);
+
+    @Query("select coalesce(sum(m.delta), 0) from StockMovement m " +
+            "where m.beerId = :beerId and m.id > :afterId and m.createdAt <= :asOf")
+    long sumDeltas(@Param("beerId") Long beerId, @Param("afterId") Long afterId, @Param("asOf") Instant asOf);
+
+    @Query("select m.beerId as beerId, max(m.id) as lastMovementId, sum(m.delta) as delta, max(m.createdAt) as takenAt " +
+            "from StockMovement m " +
+            "where m.id > coalesce((select max(s.lastMovementId) from StockSnapshot s where s.beerId = m.beerId), 0) and m.id <= :throughId " +
+            "group by m.beerId having count(m) >= :minMovements")
+    List<MovementCompaction> findPendingCompactions(@Param("throughId") long throughId, @Param("minMovements") long minMovements, Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    Optional<StockSnapshot> findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(Long beerId, Instant takenAt);
+
+    @Query("select s from StockSnapshot s where s.beerId in :beerIds and s.lastMovementId = " +
+            "(select max(l.lastMovementId) from StockSnapshot l where l.beerId = s.beerId)")
+    List<StockSnapshot> findLatestByBeerIdIn(@Param("beerIds") Collection<Long> beerIds);
+}
@@ -0,0 +1,12 @@
+package com.ederson.beerstock.repository;
+
+public interface StockSummary {
+
+    long getBeers();
+
+    Long getUnits();
+
+    Long getEmpty();
+
+    Long getNearMax();
+}
@@ -0,0 +1,7 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.entity.WriteBehindCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WriteBehindCheckpointRepository extends JpaRepository<WriteBehindCheckpoint, String> {
+}
@@ -0,0 +1,61 @@
+package com.ederson.beerstock.retry;
+
+import com.ederson.beerstock.config.RetryProperties;
+import com.ederson.beerstock.exception.BeerConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ConflictRetryAspect {
+
+    public static final String CONFLICTS_COUNTER = "beerstock.retry.conflicts";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final RetryProperties retryProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(com.ederson.beerstock.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                boolean exhausted = attempt >= retryProperties.getMaxAttempts();
+                meterRegistry.counter(CONFLICTS_COUNTER, "operation", operation, "exception", e.getClass().getSimpleName(), "outcome", exhausted ? "exhausted" : "retried").increment();
+                if (exhausted) {
+                    LOGGER.warn("{} still conflicted after {} attempts: {}", operation, attempt, e.getMostSpecificCause().getMessage());
+                    throw new BeerConcurrentUpdateException(operation, attempt, e);
+                }
+                LOGGER.debug("{} conflicted on attempt {}, retrying: {}", operation, attempt, e.getMostSpecificCause().getMessage());
+                backOff(attempt, operation, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, String operation, RuntimeException conflict) {
+        long initial = retryProperties.getInitialBackoff().toMillis();
+        long ceiling = Math.min(retryProperties.getMaxBackoff().toMillis(), initial << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeerConcurrentUpdateException(operation, attempt, conflict);
+        }
+    }
+}
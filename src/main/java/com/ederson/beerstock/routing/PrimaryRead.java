@@ -0,0 +1,15 @@
+package com.ederson.beerstock.routing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a read-only method on the primary. Used for reads whose result is cached or served under the catalog
+ * ETag, both of which are only bumped by primary commits.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
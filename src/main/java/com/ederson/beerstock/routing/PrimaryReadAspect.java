@@ -0,0 +1,33 @@
+package com.ederson.beerstock.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PrimaryReadAspect {
+
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    static boolean isPrimaryRead() {
+        return PRIMARY_READ.get() != null;
+    }
+
+    @Around("@annotation(com.ederson.beerstock.routing.PrimaryRead)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (isPrimaryRead()) {
+            return joinPoint.proceed();
+        }
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PRIMARY_READ.remove();
+        }
+    }
+}
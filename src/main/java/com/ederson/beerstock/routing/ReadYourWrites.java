@@ -0,0 +1,47 @@
+package com.ederson.beerstock.routing;
+
+import com.ederson.beerstock.config.ReplicaRoutingProperties;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.servlet.http.HttpServletRequest;
+
+public class ReadYourWrites {
+
+    private static final String LOCAL_CLIENT = "local";
+
+    private final String clientHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(ReplicaRoutingProperties replicaRoutingProperties) {
+        this.clientHeader = replicaRoutingProperties.getClientHeader();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(replicaRoutingProperties.getStickiness())
+                .maximumSize(replicaRoutingProperties.getMaxClients())
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        recentWriters.put(currentClient(), Boolean.TRUE);
+    }
+
+    public boolean isSticky() {
+        return recentWriters.getIfPresent(currentClient()) != null;
+    }
+
+    private String currentClient() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(requestAttributes instanceof ServletRequestAttributes)) {
+            return LOCAL_CLIENT;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+}
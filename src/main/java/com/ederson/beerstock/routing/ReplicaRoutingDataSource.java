@@ -0,0 +1,86 @@
+package com.ederson.beerstock.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    public static final String ROUTES_COUNTER = "beerstock.routing.connections";
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        Router router = new Router(primary, replicas, readYourWrites, meterRegistry);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static class Router extends AbstractRoutingDataSource {
+
+        private final int replicaCount;
+        private final ReadYourWrites readYourWrites;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Counter writes;
+        private final Counter stickyReads;
+        private final Counter primaryReads;
+        private final Counter[] replicaReads;
+
+        Router(HikariDataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+            this.replicaCount = replicas.size();
+            this.readYourWrites = readYourWrites;
+            this.writes = meterRegistry.counter(ROUTES_COUNTER, "route", PRIMARY, "reason", "write");
+            this.stickyReads = meterRegistry.counter(ROUTES_COUNTER, "route", PRIMARY, "reason", "read_your_writes");
+            this.primaryReads = meterRegistry.counter(ROUTES_COUNTER, "route", PRIMARY, "reason", "primary_read");
+            this.replicaReads = new Counter[replicaCount];
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(PRIMARY, primary);
+            for (int i = 0; i < replicaCount; i++) {
+                targets.put(i, replicas.get(i));
+                replicaReads[i] = meterRegistry.counter(ROUTES_COUNTER, "route", replicas.get(i).getPoolName(), "reason", "read");
+            }
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primary);
+            setLenientFallback(false);
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (replicaCount == 0 || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                writes.increment();
+                return PRIMARY;
+            }
+            if (PrimaryReadAspect.isPrimaryRead()) {
+                primaryReads.increment();
+                return PRIMARY;
+            }
+            if (readYourWrites.isSticky()) {
+                stickyReads.increment();
+                return PRIMARY;
+            }
+            int replica = Math.floorMod(next.getAndIncrement(), replicaCount);
+            replicaReads[replica].increment();
+            return replica;
+        }
+    }
+}
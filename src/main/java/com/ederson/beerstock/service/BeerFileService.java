@@ -0,0 +1,201 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.MetricsConfig;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.dto.BeerImportErrorDTO;
+import com.ederson.beerstock.enums.BeerFileFormat;
+import com.ederson.beerstock.enums.BeerUpsertStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class BeerFileService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeerFileService.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("name")
+            .addColumn("brand")
+            .addColumn("max")
+            .addColumn("quantity")
+            .addColumn("type")
+            .setUseHeader(true)
+            .build();
+
+    private final BeerService beerService;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final Validator validator;
+
+    @Autowired
+    public BeerFileService(BeerService beerService, ObjectMapper objectMapper, Validator validator) {
+        this.beerService = beerService;
+        this.objectMapper = objectMapper;
+        this.csvMapper = new CsvMapper();
+        this.csvMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.validator = validator;
+    }
+
+    public void exportBeers(BeerFileFormat format, OutputStream outputStream) throws IOException {
+        if (format == BeerFileFormat.CSV) {
+            try (SequenceWriter writer = csvMapper.writerFor(BeerDTO.class).with(CSV_SCHEMA).writeValues(outputStream)) {
+                beerService.streamAll(beerDTO -> write(() -> writer.write(beerDTO)));
+            }
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            beerService.streamAll(beerDTO -> write(() -> {
+                generator.writeObject(beerDTO);
+                generator.writeRaw('\n');
+            }));
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerFileImportResultDTO importBeers(BeerFileFormat format, InputStream inputStream) throws IOException {
+        BeerFileImportResultDTO result = new BeerFileImportResultDTO(0, 0, 0, 0, new ArrayList<>());
+        List<BeerDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> lines = new ArrayList<>(CHUNK_SIZE);
+        try (MappingIterator<BeerDTO> beers = reader(format).readValues(inputStream)) {
+            while (true) {
+                try {
+                    if (!beers.hasNextValue()) {
+                        break;
+                    }
+                    BeerDTO beerDTO = beers.nextValue();
+                    long line = beers.getParser().getTokenLocation().getLineNr();
+                    String violation = validate(beerDTO);
+                    if (violation != null) {
+                        reject(result, line, violation);
+                        continue;
+                    }
+                    chunk.add(beerDTO);
+                    lines.add(line);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        upsert(result, chunk, lines);
+                    }
+                } catch (JsonParseException e) {
+                    reject(result, lineOf(e.getLocation()), "malformed line");
+                    break;
+                } catch (JsonMappingException e) {
+                    reject(result, lineOf(e.getLocation()), fieldOf(e) + ": invalid value");
+                }
+            }
+        }
+        upsert(result, chunk, lines);
+        return result;
+    }
+
+    private ObjectReader reader(BeerFileFormat format) {
+        if (format == BeerFileFormat.CSV) {
+            return csvMapper.readerFor(BeerDTO.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(BeerDTO.class);
+    }
+
+    private String validate(BeerDTO beerDTO) {
+        List<String> violations = validator.validate(beerDTO).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(BeerFileService::describe)
+                .collect(Collectors.toList());
+        if (violations.isEmpty() && beerDTO.getQuantity() > beerDTO.getMax()) {
+            violations.add("quantity: must not exceed max");
+        }
+        return violations.isEmpty() ? null : String.join(", ", violations);
+    }
+
+    private void upsert(BeerFileImportResultDTO result, List<BeerDTO> chunk, List<Long> lines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BeerUpsertStatus> statuses;
+        try {
+            statuses = beerService.upsertBeers(chunk);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not save the chunk of lines {} to {}", lines.get(0), lines.get(lines.size() - 1), e);
+            lines.forEach(line -> reject(result, line, "could not be saved"));
+            chunk.clear();
+            lines.clear();
+            return;
+        }
+        for (int i = 0; i < statuses.size(); i++) {
+            BeerUpsertStatus status = statuses.get(i);
+            if (status == BeerUpsertStatus.CREATED) {
+                result.setCreated(result.getCreated() + 1);
+            } else if (status == BeerUpsertStatus.UPDATED) {
+                result.setUpdated(result.getUpdated() + 1);
+            } else if (status == BeerUpsertStatus.UNCHANGED) {
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                reject(result, lines.get(i), status.getDescription());
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private static void reject(BeerFileImportResultDTO result, long line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BeerImportErrorDTO(line, message));
+        }
+    }
+
+    private static String describe(ConstraintViolation<BeerDTO> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private static String fieldOf(JsonMappingException e) {
+        String field = e.getPath().stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(name -> name != null)
+                .collect(Collectors.joining("."));
+        return field.isEmpty() ? "line" : field;
+    }
+
+    private static long lineOf(JsonLocation location) {
+        return location == null ? 0L : location.getLineNr();
+    }
+
+    private static void write(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+}
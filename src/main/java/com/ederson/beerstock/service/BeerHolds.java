@@ -0,0 +1,81 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.exception.BeerNotFoundException;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Held units of one beer, together with the units that transactions still in flight are taking out of its stock, so
+ * holds are granted with a CAS and never against units already on their way out. Every change installs a new
+ * snapshot, so a lowering that starts and finishes while a hold is being granted still fails its CAS.
+ */
+class BeerHolds {
+
+    private static final State RETIRED = new State(Integer.MAX_VALUE, 0);
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0));
+
+    boolean tryHold(QuantityReader quantity, int units) throws BeerNotFoundException {
+        while (true) {
+            State current = state.get();
+            if ((long) quantity.read() - current.lowering - current.held < units) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(current.held + units, current.lowering))) {
+                return true;
+            }
+        }
+    }
+
+    void hold(int units) {
+        update(units, 0);
+    }
+
+    void release(int units) {
+        update(-units, 0);
+    }
+
+    int startLowering(int units) {
+        return update(0, units).held;
+    }
+
+    void finishLowering(int units) {
+        update(0, -units);
+    }
+
+    int getHeld() {
+        return state.get().held;
+    }
+
+    /**
+     * Leaves these holds refusing every hold and lowering, as long as none is in progress.
+     */
+    boolean retire() {
+        State current = state.get();
+        return current.held == 0 && current.lowering == 0 && state.compareAndSet(current, RETIRED);
+    }
+
+    private State update(int heldDelta, int loweringDelta) {
+        while (true) {
+            State current = state.get();
+            if (state.compareAndSet(current, new State(current.held + heldDelta, current.lowering + loweringDelta))) {
+                return current;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface QuantityReader {
+        int read() throws BeerNotFoundException;
+    }
+
+    private static final class State {
+        private final int held;
+        private final int lowering;
+
+        private State(int held, int lowering) {
+            this.held = held;
+            this.lowering = lowering;
+        }
+    }
+}
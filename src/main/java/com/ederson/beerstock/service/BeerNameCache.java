@@ -0,0 +1,35 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.CacheConfig;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.routing.PrimaryRead;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Beers by name as the database has them, kept apart from {@link BeerService} so its callers can bring the cached
+ * quantity up to date with the stock store on every read.
+ */
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerNameCache {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+
+    @Cacheable(cacheNames = CacheConfig.BEERS_BY_NAME, key = "#name", sync = true)
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public BeerDTO get(String name) throws BeerNotFoundException {
+        Beer foundBeer = beerRepository.findByName(name)
+                .orElseThrow(() -> new BeerNotFoundException(name));
+        return beerMapper.toDTO(foundBeer);
+    }
+}
@@ -1,50 +1,200 @@
 package com.ederson.beerstock.service;
 
+import com.ederson.beerstock.config.MetricsConfig;
 import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.StockMovementDTO;
+import com.ederson.beerstock.dto.StockMovementResultDTO;
+import com.ederson.beerstock.enums.BeerUpsertStatus;
+import com.ederson.beerstock.enums.StockMovementStatus;
 import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.event.BeerChangedEvent;
 import com.ederson.beerstock.exception.BeerAlreadyRegisteredException;
 import com.ederson.beerstock.exception.BeerNotFoundException;
 import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
 import com.ederson.beerstock.mapper.BeerMapper;
 import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.retry.RetryOnConflict;
+import com.ederson.beerstock.store.StockStore;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
     private final BeerRepository beerRepository;
-    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
+    private final StockStore stockStore;
+    private final BeerNameCache beerNameCache;
+    private final BeerMapper beerMapper;
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
         Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        eventPublisher.publishEvent(new BeerChangedEvent(null, savedBeerDTO));
+        return savedBeerDTO;
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public BeerImportResultDTO createBeers(List<BeerDTO> beerDTOs) {
+        List<String> alreadyRegistered = new ArrayList<>();
+        int created = 0;
+        for (int from = 0; from < beerDTOs.size(); from += IMPORT_CHUNK_SIZE) {
+            List<BeerDTO> chunk = beerDTOs.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, beerDTOs.size()));
+            Set<String> registeredNames = new HashSet<>(beerRepository.findNamesIn(chunk.stream()
+                    .map(BeerDTO::getName)
+                    .collect(Collectors.toSet())));
+            List<Beer> beersToSave = new ArrayList<>(chunk.size());
+            for (BeerDTO beerDTO : chunk) {
+                if (!registeredNames.add(beerDTO.getName())) {
+                    alreadyRegistered.add(beerDTO.getName());
+                    continue;
+                }
+                Beer beer = beerMapper.toModel(beerDTO);
+                beer.setId(null);
+                beersToSave.add(beer);
+            }
+            for (Beer savedBeer : beerRepository.saveAll(beersToSave)) {
+                eventPublisher.publishEvent(new BeerChangedEvent(null, beerMapper.toDTO(savedBeer)));
+            }
+            beerRepository.flush();
+            entityManager.clear();
+            created += beersToSave.size();
+        }
+        return new BeerImportResultDTO(created, alreadyRegistered);
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnConflict
+    @Transactional
+    public List<BeerUpsertStatus> upsertBeers(List<BeerDTO> beerDTOs) {
+        Map<String, Beer> beers = beerRepository.findByNameInForUpdate(beerDTOs.stream()
+                .map(BeerDTO::getName)
+                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Beer::getName, Function.identity()));
+        List<BeerUpsertStatus> statuses = new ArrayList<>(beerDTOs.size());
+        for (BeerDTO beerDTO : beerDTOs) {
+            statuses.add(upsertBeer(beers, beerDTO));
+        }
+        beerRepository.flush();
+        entityManager.clear();
+        return statuses;
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        return stockStore.withCurrentQuantity(beerNameCache.get(name));
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public List<BeerDTO> listAll() {
         return beerRepository.findAll()
                 .stream()
                 .map(beerMapper::toDTO)
+                .map(stockStore::withCurrentQuantity)
+                .collect(Collectors.toList());
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public BeerPageDTO listPage(Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<BeerDTO> beers = beerRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, PageRequest.of(0, pageSize))
+                .stream()
+                .map(beerMapper::toDTO)
+                .map(stockStore::withCurrentQuantity)
+                .collect(Collectors.toList());
+        Long next = beers.size() == pageSize ? beers.get(beers.size() - 1).getId() : null;
+        return new BeerPageDTO(beers, next);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public BeerPageDTO search(BeerSearchDTO filter) {
+        int pageSize = Math.min(Math.max(filter.getLimit(), 1), MAX_PAGE_SIZE);
+        List<BeerDTO> beers = beerRepository.search(filter, pageSize)
+                .stream()
+                .map(stockStore::withCurrentQuantity)
                 .collect(Collectors.toList());
+        Long next = beers.size() == pageSize ? beers.get(beers.size() - 1).getId() : null;
+        return new BeerPageDTO(beers, next);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<BeerDTO> consumer) {
+        try (Stream<Beer> beers = beerRepository.streamAllOrderById()) {
+            beers.forEach(beer -> {
+                consumer.accept(stockStore.withCurrentQuantity(beerMapper.toDTO(beer)));
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnConflict
+    @Transactional
+    public BeerDTO updateBeer(Long id, BeerDTO beerDTO) throws BeerNotFoundException, BeerAlreadyRegisteredException, BeerStockExceededException {
+        Beer beer = verifyIfExists(id);
+        BeerDTO before = beerMapper.toDTO(beer);
+        if (!beer.getName().equals(beerDTO.getName())) {
+            verifyIfIsAlreadyRegistered(beerDTO.getName());
+        }
+        int quantity = stockStore.quantityOf(beer);
+        if (quantity > beerDTO.getMax()) {
+            throw new BeerStockExceededException(id, quantity);
+        }
+        beer.setName(beerDTO.getName());
+        beer.setBrand(beerDTO.getBrand());
+        beer.setMax(beerDTO.getMax());
+        beer.setType(beerDTO.getType());
+        BeerDTO after = beerMapper.toDTO(beerRepository.saveAndFlush(beer));
+        eventPublisher.publishEvent(new BeerChangedEvent(before, after));
+        return after;
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnConflict
+    @Transactional
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
+        Beer beerToDelete = verifyIfExists(id);
         beerRepository.deleteById(id);
+        eventPublisher.publishEvent(new BeerChangedEvent(beerMapper.toDTO(beerToDelete), null));
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
@@ -59,15 +209,106 @@ public class BeerService {
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
+        if (quantityToIncrement <= 0) {
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+        BeerDTO incrementedBeer = stockStore.applyQuantityDelta(id, quantityToIncrement);
+        if (incrementedBeer == null) {
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+        return publishStockChange(incrementedBeer, quantityToIncrement);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException {
+        // not every database re-checks the conditional update after waiting on a concurrent one
+        beerRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        int held = stockReservationService.beginLowering(id, quantityToDecrement);
+        BeerDTO decrementedBeer = stockStore.applyQuantityDelta(id, -quantityToDecrement, held);
+        if (decrementedBeer == null) {
+            throw new BeerStockInsufficientException(id, quantityToDecrement);
+        }
+        return publishStockChange(decrementedBeer, -quantityToDecrement);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public List<StockMovementResultDTO> applyMovements(List<StockMovementDTO> movements) {
+        Set<Long> ids = movements.stream()
+                .map(StockMovementDTO::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Beer> beers = beerRepository.findAllByIdInForUpdate(ids)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        Map<Long, Integer> quantitiesBefore = new HashMap<>();
+        Map<Long, Integer> quantitiesAfter = new HashMap<>();
+        List<StockMovementResultDTO> results = new ArrayList<>(movements.size());
+        for (StockMovementDTO movement : movements) {
+            results.add(applyMovement(beers.get(movement.getId()), movement, quantitiesBefore, quantitiesAfter));
         }
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        beerRepository.flush();
+        quantitiesBefore.forEach((id, quantityBefore) -> {
+            BeerDTO movedBeer = beerMapper.toDTO(beers.get(id));
+            movedBeer.setQuantity(quantitiesAfter.get(id));
+            publishStockChange(movedBeer, movedBeer.getQuantity() - quantityBefore);
+        });
+        return results;
+    }
+
+    private BeerUpsertStatus upsertBeer(Map<String, Beer> beers, BeerDTO beerDTO) {
+        Beer beer = beers.get(beerDTO.getName());
+        if (beer == null) {
+            Beer newBeer = beerMapper.toModel(beerDTO);
+            newBeer.setId(null);
+            Beer savedBeer = beerRepository.save(newBeer);
+            beers.put(savedBeer.getName(), savedBeer);
+            eventPublisher.publishEvent(new BeerChangedEvent(null, beerMapper.toDTO(savedBeer)));
+            return BeerUpsertStatus.CREATED;
+        }
+        BeerDTO before = beerMapper.toDTO(beer);
+        before.setQuantity(stockStore.quantityOf(beer));
+        int delta = beerDTO.getQuantity() - before.getQuantity();
+        beer.setMax(beerDTO.getMax());
+        if (delta != 0 && stockStore.applyQuantityDelta(beer, delta, delta < 0 ? stockReservationService.beginLowering(beer.getId(), -delta) : 0) == null) {
+            beer.setMax(before.getMax());
+            return BeerUpsertStatus.STOCK_INSUFFICIENT;
+        }
+        beer.setBrand(beerDTO.getBrand());
+        beer.setType(beerDTO.getType());
+        BeerDTO after = beerMapper.toDTO(beer);
+        after.setQuantity(beerDTO.getQuantity());
+        if (after.equals(before)) {
+            return BeerUpsertStatus.UNCHANGED;
+        }
+        eventPublisher.publishEvent(new BeerChangedEvent(before, after));
+        return BeerUpsertStatus.UPDATED;
+    }
+
+    private StockMovementResultDTO applyMovement(Beer beer, StockMovementDTO movement, Map<Long, Integer> quantitiesBefore, Map<Long, Integer> quantitiesAfter) {
+        if (beer == null) {
+            return new StockMovementResultDTO(movement.getId(), movement.getDelta(), StockMovementStatus.NOT_FOUND, null);
+        }
+        int quantity = stockStore.quantityOf(beer);
+        int reserved = movement.getDelta() < 0 ? stockReservationService.beginLowering(beer.getId(), -movement.getDelta()) : 0;
+        Integer quantityAfterMovement = stockStore.applyQuantityDelta(beer, movement.getDelta(), reserved);
+        if (quantityAfterMovement == null) {
+            StockMovementStatus status = movement.getDelta() > 0 ? StockMovementStatus.STOCK_EXCEEDED : StockMovementStatus.STOCK_INSUFFICIENT;
+            return new StockMovementResultDTO(beer.getId(), movement.getDelta(), status, quantity);
+        }
+        quantitiesBefore.putIfAbsent(beer.getId(), quantity);
+        quantitiesAfter.put(beer.getId(), quantityAfterMovement);
+        return new StockMovementResultDTO(beer.getId(), movement.getDelta(), StockMovementStatus.APPLIED, quantityAfterMovement);
+    }
+
+    private BeerDTO publishStockChange(BeerDTO after, int delta) {
+        BeerDTO before = new BeerDTO(after.getId(), after.getName(), after.getBrand(), after.getMax(), after.getQuantity() - delta, after.getType());
+        eventPublisher.publishEvent(new BeerChangedEvent(before, after));
+        return after;
     }
 }
 
@@ -0,0 +1,240 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+public class BeerSuggestService {
+
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int GRAM_SIZE = 3;
+    private static final double MIN_SIMILARITY = 0.4;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BeerRepository beerRepository;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BeerSuggestService(BeerRepository beerRepository) {
+        this.beerRepository = beerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void initialize() {
+        entries.clear();
+        terms.clear();
+        grams.clear();
+        beerRepository.findAllSuggestions().forEach(this::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO before = event.getBefore();
+        BeerDTO after = event.getAfter();
+        if (before != null && after != null && Objects.equals(before.getName(), after.getName()) && Objects.equals(before.getBrand(), after.getBrand())) {
+            return;
+        }
+        if (before != null) {
+            remove(before.getId());
+        }
+        if (after != null) {
+            add(new BeerSuggestionDTO(after.getId(), after.getName(), after.getBrand()));
+        }
+    }
+
+    public List<BeerSuggestionDTO> suggest(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        int size = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        if (normalizedQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        collectPrefixMatches(normalizedQuery, size, ids);
+        if (ids.size() < size && normalizedQuery.length() >= GRAM_SIZE) {
+            collectFuzzyMatches(normalizedQuery, size, ids);
+        }
+        List<BeerSuggestionDTO> suggestions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                suggestions.add(entry.suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void collectPrefixMatches(String query, int size, Set<Long> ids) {
+        for (Set<Long> termIds : terms.subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+            for (Long id : termIds) {
+                ids.add(id);
+                if (ids.size() == size) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collectFuzzyMatches(String query, int size, Set<Long> ids) {
+        Set<String> queryGrams = gramsOf(query);
+        List<Set<Long>> postings = queryGrams.stream()
+                .map(gram -> grams.getOrDefault(gram, Collections.emptySet()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .collect(Collectors.toList());
+        int required = (int) Math.ceil(queryGrams.size() * MIN_SIMILARITY);
+        int probes = postings.size() - required + 1;
+        Map<Long, Integer> shared = new HashMap<>();
+        for (int i = 0; i < probes; i++) {
+            for (Long id : postings.get(i)) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::getScore));
+        for (Map.Entry<Long, Integer> candidate : shared.entrySet()) {
+            Entry entry = entries.get(candidate.getKey());
+            if (entry == null || ids.contains(candidate.getKey())) {
+                continue;
+            }
+            int count = candidate.getValue();
+            for (int i = probes; i < postings.size(); i++) {
+                if (postings.get(i).contains(candidate.getKey())) {
+                    count++;
+                }
+            }
+            if (count >= required) {
+                best.add(new Match(candidate.getKey(), (double) count / (queryGrams.size() + entry.grams.size() - count)));
+                if (best.size() > size - ids.size()) {
+                    best.poll();
+                }
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Comparator.comparingDouble(Match::getScore).reversed());
+        for (Match match : matches) {
+            ids.add(match.id);
+        }
+    }
+
+    private void add(BeerSuggestionDTO beer) {
+        Entry entry = new Entry(beer, termsOf(beer), gramsOf(beer));
+        entries.put(beer.getId(), entry);
+        entry.terms.forEach(term -> terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(beer.getId()));
+        entry.grams.forEach(gram -> grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(beer.getId()));
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        entry.terms.forEach(term -> removePosting(terms, term, id));
+        entry.grams.forEach(gram -> removePosting(grams, gram, id));
+    }
+
+    private static void removePosting(Map<String, Set<Long>> index, String key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> termsOf(BeerSuggestionDTO beer) {
+        Set<String> beerTerms = new HashSet<>();
+        for (String text : new String[]{beer.getName(), beer.getBrand()}) {
+            String normalized = normalize(text);
+            if (!normalized.isEmpty()) {
+                beerTerms.add(normalized);
+                Collections.addAll(beerTerms, normalized.split(" "));
+            }
+        }
+        return beerTerms;
+    }
+
+    private static Set<String> gramsOf(BeerSuggestionDTO beer) {
+        Set<String> beerGrams = gramsOf(normalize(beer.getName()));
+        beerGrams.addAll(gramsOf(normalize(beer.getBrand())));
+        return beerGrams;
+    }
+
+    private static Set<String> gramsOf(String normalized) {
+        Set<String> textGrams = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return textGrams;
+        }
+        String padded = " " + normalized + " ";
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            textGrams.add(padded.substring(i, i + GRAM_SIZE));
+        }
+        return textGrams;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutDiacritics.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static final class Entry {
+
+        private final BeerSuggestionDTO suggestion;
+        private final Set<String> terms;
+        private final Set<String> grams;
+
+        private Entry(BeerSuggestionDTO suggestion, Set<String> terms, Set<String> grams) {
+            this.suggestion = suggestion;
+            this.terms = terms;
+            this.grams = grams;
+        }
+    }
+
+    private static final class Match {
+
+        private final Long id;
+        private final double score;
+
+        private Match(Long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        private double getScore() {
+            return score;
+        }
+    }
+}
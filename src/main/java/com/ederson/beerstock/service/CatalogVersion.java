@@ -0,0 +1,43 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.routing.ReadYourWrites;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CatalogVersion {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+    private final Optional<ReadYourWrites> readYourWrites;
+
+    @Autowired
+    public CatalogVersion(Optional<ReadYourWrites> readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public String etag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+
+    /**
+     * Whether database reads of the current request go to a replica, whose data may be older than {@link #etag()}.
+     */
+    public boolean isReplicaRead() {
+        return readYourWrites.map(routing -> !routing.isSticky()).orElse(false);
+    }
+}
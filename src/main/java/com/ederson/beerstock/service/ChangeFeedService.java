@@ -0,0 +1,184 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.ChangeFeedProperties;
+import com.ederson.beerstock.config.MetricsConfig;
+import com.ederson.beerstock.dto.BeerChangeDTO;
+import com.ederson.beerstock.dto.BeerChangePageDTO;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.BeerChange;
+import com.ederson.beerstock.entity.WriteBehindCheckpoint;
+import com.ederson.beerstock.enums.BeerChangeType;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.exception.ChangeFeedExpiredException;
+import com.ederson.beerstock.repository.BeerChangeRepository;
+import com.ederson.beerstock.repository.WriteBehindCheckpointRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+@Service
+@Lazy(false)
+public class ChangeFeedService {
+
+    private static final String CHECKPOINT = "change-feed";
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final BeerChangeRepository beerChangeRepository;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final EntityManager entityManager;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private boolean loaded;
+    private long lastSequence;
+    private long horizon;
+    private long truncating;
+
+    @Autowired
+    public ChangeFeedService(BeerChangeRepository beerChangeRepository, WriteBehindCheckpointRepository checkpointRepository,
+                             ChangeFeedProperties changeFeedProperties, EntityManager entityManager) {
+        this.beerChangeRepository = beerChangeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.changeFeedProperties = changeFeedProperties;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO after = event.getAfter();
+        long sequence = reserve();
+        try {
+            BeerChange change = after == null
+                    ? new BeerChange(sequence, event.getBefore().getId(), BeerChangeType.DELETE, null, null, null, null, null, Instant.now())
+                    : new BeerChange(sequence, after.getId(), BeerChangeType.UPSERT, after.getName(), after.getBrand(), after.getMax(), after.getQuantity(), after.getType(), Instant.now());
+            entityManager.persist(change);
+        } catch (RuntimeException e) {
+            release(sequence);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(sequence);
+                }
+            });
+        } else {
+            release(sequence);
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BeerChangePageDTO listChanges(Long since, int limit) throws ChangeFeedExpiredException {
+        long watermark = watermark();
+        if (since == null) {
+            return new BeerChangePageDTO(new ArrayList<>(), watermark);
+        }
+        if (since < horizon() || since > watermark) {
+            throw new ChangeFeedExpiredException(since);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<BeerChange> changes = beerChangeRepository.findBySequenceGreaterThanAndSequenceLessThanEqualOrderBySequenceAsc(since, watermark, PageRequest.of(0, pageSize));
+        if (since < truncatedHorizon()) {
+            throw new ChangeFeedExpiredException(since);
+        }
+        Map<Long, BeerChangeDTO> latest = new LinkedHashMap<>();
+        for (BeerChange change : changes) {
+            latest.remove(change.getBeerId());
+            latest.put(change.getBeerId(), toDTO(change));
+        }
+        long next = changes.size() == pageSize ? changes.get(changes.size() - 1).getSequence() : watermark;
+        return new BeerChangePageDTO(new ArrayList<>(latest.values()), next);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.changes.truncate-interval}")
+    @Transactional
+    public int truncateExpired() {
+        return truncate(Instant.now().minus(changeFeedProperties.getRetention()));
+    }
+
+    @Transactional
+    public int truncate(Instant cutoff) {
+        Long through = beerChangeRepository.findLastSequenceBefore(cutoff);
+        if (through == null) {
+            return 0;
+        }
+        through = Math.min(through, watermark());
+        if (through <= horizon()) {
+            return 0;
+        }
+        long truncated = through;
+        synchronized (this) {
+            truncating = Math.max(truncating, truncated);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finishTruncation(truncated, status == STATUS_COMMITTED);
+            }
+        });
+        checkpointRepository.save(new WriteBehindCheckpoint(CHECKPOINT, through));
+        return beerChangeRepository.deleteUpTo(through);
+    }
+
+    private synchronized long reserve() {
+        load();
+        inFlight.add(++lastSequence);
+        return lastSequence;
+    }
+
+    private synchronized void release(long sequence) {
+        inFlight.remove(sequence);
+    }
+
+    private synchronized long watermark() {
+        load();
+        return inFlight.isEmpty() ? lastSequence : inFlight.first() - 1;
+    }
+
+    private synchronized long horizon() {
+        load();
+        return horizon;
+    }
+
+    private synchronized long truncatedHorizon() {
+        return Math.max(horizon(), truncating);
+    }
+
+    private synchronized void finishTruncation(long through, boolean committed) {
+        if (committed) {
+            horizon = Math.max(horizon, through);
+        }
+        truncating = 0L;
+    }
+
+    private void load() {
+        if (!loaded) {
+            horizon = checkpointRepository.findById(CHECKPOINT).map(WriteBehindCheckpoint::getSegment).orElse(0L);
+            Long last = beerChangeRepository.findLastSequence();
+            lastSequence = Math.max(last == null ? 0L : last, horizon);
+            loaded = true;
+        }
+    }
+
+    private static BeerChangeDTO toDTO(BeerChange change) {
+        BeerDTO beer = change.getType() == BeerChangeType.DELETE ? null
+                : new BeerDTO(change.getBeerId(), change.getName(), change.getBrand(), change.getMax(), change.getQuantity(), change.getBeerType());
+        return new BeerChangeDTO(change.getSequence(), change.getType(), change.getBeerId(), beer);
+    }
+}
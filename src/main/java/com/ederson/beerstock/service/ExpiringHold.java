@@ -0,0 +1,37 @@
+package com.ederson.beerstock.service;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+@Getter
+class ExpiringHold implements Delayed {
+
+    private final Long reservationId;
+    private final Long beerId;
+    private final int quantity;
+    private final Instant expiresAt;
+
+    ExpiringHold(Long reservationId, Long beerId, int quantity, Instant expiresAt) {
+        this.reservationId = reservationId;
+        this.beerId = beerId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    ExpiringHold retryAt(Instant retryAt) {
+        return new ExpiringHold(reservationId, beerId, quantity, retryAt);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return expiresAt.compareTo(((ExpiringHold) other).expiresAt);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.InventoryAggregateDTO;
+import com.ederson.beerstock.dto.InventoryAggregatesDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.InventoryGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+@Lazy(false)
+public class InventoryAggregateService {
+
+    public static final String DRIFT_COUNTER = "beerstock.aggregates.drift";
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryAggregateService.class);
+
+    private final Dimension byBrand;
+    private final Dimension byType;
+    private long version;
+
+    @Autowired
+    public InventoryAggregateService(BeerRepository beerRepository, MeterRegistry meterRegistry) {
+        this.byBrand = new Dimension("brand", BeerDTO::getBrand, beerRepository::aggregateByBrand, meterRegistry);
+        this.byType = new Dimension("type", beerDTO -> beerDTO.getType().name(), beerRepository::aggregateByType, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Map<String, InventoryAggregateDTO> brands = byBrand.load();
+        Map<String, InventoryAggregateDTO> types = byType.load();
+        synchronized (this) {
+            byBrand.groups = brands;
+            byType.groups = types;
+            version++;
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBeerChanged(BeerChangedEvent event) {
+        if (event.getBefore() != null) {
+            byBrand.apply(event.getBefore(), -1);
+            byType.apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            byBrand.apply(event.getAfter(), 1);
+            byType.apply(event.getAfter(), 1);
+        }
+        version++;
+    }
+
+    public synchronized InventoryAggregatesDTO aggregates() {
+        return new InventoryAggregatesDTO(byBrand.snapshot(), byType.snapshot());
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.aggregates.reconcile-interval}")
+    public int reconcile() {
+        long observedVersion;
+        synchronized (this) {
+            observedVersion = version;
+        }
+        Map<String, InventoryAggregateDTO> brands = byBrand.load();
+        Map<String, InventoryAggregateDTO> types = byType.load();
+        synchronized (this) {
+            if (observedVersion != version) {
+                byBrand.pendingDrift = null;
+                byType.pendingDrift = null;
+                return 0;
+            }
+            return byBrand.reconcile(brands) + byType.reconcile(types);
+        }
+    }
+
+    private static final class Dimension {
+
+        private final String name;
+        private final Function<BeerDTO, String> key;
+        private final Supplier<List<InventoryGroup>> query;
+        private final Counter drift;
+        private Map<String, InventoryAggregateDTO> groups = new HashMap<>();
+        private Map<String, InventoryAggregateDTO> pendingDrift;
+
+        private Dimension(String name, Function<BeerDTO, String> key, Supplier<List<InventoryGroup>> query, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.key = key;
+            this.query = query;
+            this.drift = meterRegistry.counter(DRIFT_COUNTER, "dimension", name);
+        }
+
+        private Map<String, InventoryAggregateDTO> load() {
+            Map<String, InventoryAggregateDTO> loaded = new HashMap<>();
+            for (InventoryGroup group : query.get()) {
+                loaded.put(group.getName(), new InventoryAggregateDTO(group.getName(), group.getBeers(), valueOf(group.getQuantity()), valueOf(group.getCapacity())));
+            }
+            return loaded;
+        }
+
+        private void apply(BeerDTO beerDTO, int sign) {
+            String group = key.apply(beerDTO);
+            InventoryAggregateDTO current = groups.getOrDefault(group, new InventoryAggregateDTO(group, 0, 0, 0));
+            InventoryAggregateDTO next = new InventoryAggregateDTO(group, current.getBeers() + sign,
+                    current.getQuantity() + sign * (long) beerDTO.getQuantity(), current.getCapacity() + sign * (long) beerDTO.getMax());
+            if (next.getBeers() == 0) {
+                groups.remove(group);
+            } else {
+                groups.put(group, next);
+            }
+        }
+
+        private List<InventoryAggregateDTO> snapshot() {
+            List<InventoryAggregateDTO> snapshot = new ArrayList<>(groups.values());
+            snapshot.sort(Comparator.comparing(InventoryAggregateDTO::getName));
+            return snapshot;
+        }
+
+        private int reconcile(Map<String, InventoryAggregateDTO> loaded) {
+            Set<String> names = new HashSet<>(groups.keySet());
+            names.addAll(loaded.keySet());
+            Map<String, InventoryAggregateDTO> observedDrift = new HashMap<>();
+            for (String group : names) {
+                if (!Objects.equals(groups.get(group), loaded.get(group))) {
+                    observedDrift.put(group, loaded.get(group));
+                }
+            }
+            if (observedDrift.isEmpty() || !observedDrift.equals(pendingDrift)) {
+                pendingDrift = observedDrift.isEmpty() ? null : observedDrift;
+                return 0;
+            }
+            LOGGER.warn("Aggregates by {} drifted from the beer table in {} groups, reloading {}", name, observedDrift.size(), observedDrift.keySet());
+            drift.increment(observedDrift.size());
+            groups = loaded;
+            pendingDrift = null;
+            return observedDrift.size();
+        }
+
+        private static long valueOf(Long value) {
+            return value == null ? 0L : value;
+        }
+    }
+}
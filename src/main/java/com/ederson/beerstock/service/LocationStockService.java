@@ -0,0 +1,244 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.MetricsConfig;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerLocationsDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.dto.StockTransferDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.entity.BeerStock;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.event.BeerStockChangedEvent;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.LocationAlreadyRegisteredException;
+import com.ederson.beerstock.exception.LocationNotFoundException;
+import com.ederson.beerstock.mapper.BeerStockMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.BeerStockRepository;
+import com.ederson.beerstock.repository.BeerStockTotal;
+import com.ederson.beerstock.store.StockStore;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class LocationStockService {
+
+    public static final String CENTRAL = "central";
+
+    private final BeerStockRepository beerStockRepository;
+    private final BeerRepository beerRepository;
+    private final BeerService beerService;
+    private final StockStore stockStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerStockMapper beerStockMapper;
+    private final Map<Long, AtomicLong> locationTotals = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LocationStockService(BeerStockRepository beerStockRepository, BeerRepository beerRepository, @Lazy BeerService beerService,
+                                StockStore stockStore, ApplicationEventPublisher eventPublisher, BeerStockMapper beerStockMapper) {
+        this.beerStockRepository = beerStockRepository;
+        this.beerRepository = beerRepository;
+        this.beerService = beerService;
+        this.stockStore = stockStore;
+        this.eventPublisher = eventPublisher;
+        this.beerStockMapper = beerStockMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        locationTotals.clear();
+        for (BeerStockTotal total : beerStockRepository.sumQuantityByBeer()) {
+            locationTotals.put(total.getBeerId(), new AtomicLong(total.getQuantity()));
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(rollbackFor = {LocationAlreadyRegisteredException.class, BeerStockInsufficientException.class})
+    public BeerStockDTO openLocation(Long beerId, BeerStockDTO beerStockDTO) throws BeerNotFoundException, LocationAlreadyRegisteredException, BeerStockExceededException, BeerStockInsufficientException {
+        verifyIfBeerExists(beerId);
+        String location = beerStockDTO.getLocation();
+        if (CENTRAL.equals(location) || beerStockRepository.findByBeerIdAndLocation(beerId, location).isPresent()) {
+            throw new LocationAlreadyRegisteredException(beerId, location);
+        }
+        if (beerStockDTO.getQuantity() > beerStockDTO.getMax()) {
+            throw new BeerStockExceededException(beerId, beerStockDTO.getQuantity());
+        }
+        BeerStock savedStock;
+        try {
+            savedStock = beerStockRepository.saveAndFlush(new BeerStock(null, beerId, location, beerStockDTO.getMax(), beerStockDTO.getQuantity()));
+        } catch (DataIntegrityViolationException e) {
+            throw new LocationAlreadyRegisteredException(beerId, location);
+        }
+        if (beerStockDTO.getQuantity() > 0) {
+            beerService.decrement(beerId, beerStockDTO.getQuantity());
+        }
+        BeerStockDTO after = beerStockMapper.toDTO(savedStock);
+        eventPublisher.publishEvent(new BeerStockChangedEvent(beerId, null, after));
+        return after;
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public BeerLocationsDTO listLocations(Long beerId) throws BeerNotFoundException {
+        Beer beer = verifyIfBeerExists(beerId);
+        List<BeerStockDTO> locations = beerStockRepository.findByBeerIdOrderByLocation(beerId)
+                .stream()
+                .map(beerStockMapper::toDTO)
+                .collect(Collectors.toList());
+        int quantity = stockStore.quantityOf(beer);
+        return new BeerLocationsDTO(beerId, quantity, quantity + locationQuantity(beerId), locations);
+    }
+
+    public long locationQuantity(Long beerId) {
+        AtomicLong total = locationTotals.get(beerId);
+        return total == null ? 0L : total.get();
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public BeerStockDTO increment(Long beerId, String location, int quantityToIncrement) throws LocationNotFoundException, BeerStockExceededException {
+        if (CENTRAL.equals(location)) {
+            try {
+                return centralStock(beerService.increment(beerId, quantityToIncrement));
+            } catch (BeerNotFoundException e) {
+                throw new LocationNotFoundException(beerId, location);
+            }
+        }
+        if (beerStockRepository.applyQuantityDelta(beerId, location, quantityToIncrement) == 0) {
+            verifyIfLocationExists(beerId, location);
+            throw new BeerStockExceededException(beerId, quantityToIncrement);
+        }
+        return publishStockChange(verifyIfLocationExists(beerId, location), quantityToIncrement);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public BeerStockDTO decrement(Long beerId, String location, int quantityToDecrement) throws LocationNotFoundException, BeerStockInsufficientException {
+        if (CENTRAL.equals(location)) {
+            try {
+                return centralStock(beerService.decrement(beerId, quantityToDecrement));
+            } catch (BeerNotFoundException e) {
+                throw new LocationNotFoundException(beerId, location);
+            }
+        }
+        if (beerStockRepository.applyQuantityDelta(beerId, location, -quantityToDecrement) == 0) {
+            verifyIfLocationExists(beerId, location);
+            throw new BeerStockInsufficientException(beerId, quantityToDecrement);
+        }
+        return publishStockChange(verifyIfLocationExists(beerId, location), -quantityToDecrement);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public List<BeerStockDTO> transfer(Long beerId, StockTransferDTO transferDTO) throws LocationNotFoundException, BeerStockInsufficientException, BeerStockExceededException {
+        String from = transferDTO.getFrom();
+        String to = transferDTO.getTo();
+        if ((CENTRAL.equals(from) || CENTRAL.equals(to)) && !beerRepository.findByIdForUpdate(beerId).isPresent()) {
+            throw new LocationNotFoundException(beerId, CENTRAL);
+        }
+        Map<String, BeerStock> stocks = beerStockRepository.findForTransfer(beerId, Arrays.asList(from, to))
+                .stream()
+                .collect(Collectors.toMap(BeerStock::getLocation, Function.identity()));
+        BeerStock source = stocks.get(from);
+        BeerStock target = stocks.get(to);
+        if (source == null && !CENTRAL.equals(from)) {
+            throw new LocationNotFoundException(beerId, from);
+        }
+        if (target == null && !CENTRAL.equals(to)) {
+            throw new LocationNotFoundException(beerId, to);
+        }
+        int quantity = transferDTO.getQuantity();
+        if (source != null && source.getQuantity() < quantity) {
+            throw new BeerStockInsufficientException(beerId, quantity);
+        }
+        if (target != null && target.getQuantity() + quantity > target.getMax()) {
+            throw new BeerStockExceededException(beerId, quantity);
+        }
+        // central moves first: it is the only side that can still be refused, before any partition is written
+        BeerStockDTO centralAfter = null;
+        try {
+            if (source == null) {
+                centralAfter = centralStock(beerService.decrement(beerId, quantity));
+            } else if (target == null) {
+                centralAfter = centralStock(beerService.increment(beerId, quantity));
+            }
+        } catch (BeerNotFoundException e) {
+            throw new LocationNotFoundException(beerId, CENTRAL);
+        }
+        return Arrays.asList(
+                source == null ? centralAfter : move(source, -quantity),
+                target == null ? centralAfter : move(target, quantity));
+    }
+
+    @EventListener
+    public void deleteLocationsOfRemovedBeer(BeerChangedEvent event) {
+        if (event.getAfter() == null && event.getBefore() != null) {
+            beerStockRepository.deleteByBeerId(event.getBefore().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getAfter() == null && event.getBefore() != null) {
+            locationTotals.remove(event.getBefore().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerStockChanged(BeerStockChangedEvent event) {
+        long delta = quantityOf(event.getAfter()) - quantityOf(event.getBefore());
+        if (delta != 0) {
+            locationTotals.computeIfAbsent(event.getBeerId(), id -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private Beer verifyIfBeerExists(Long beerId) throws BeerNotFoundException {
+        return beerRepository.findById(beerId)
+                .orElseThrow(() -> new BeerNotFoundException(beerId));
+    }
+
+    private BeerStock verifyIfLocationExists(Long beerId, String location) throws LocationNotFoundException {
+        return beerStockRepository.findByBeerIdAndLocation(beerId, location)
+                .orElseThrow(() -> new LocationNotFoundException(beerId, location));
+    }
+
+    private BeerStockDTO move(BeerStock lockedStock, int delta) {
+        beerStockRepository.applyQuantityDelta(lockedStock.getBeerId(), lockedStock.getLocation(), delta);
+        lockedStock.setQuantity(lockedStock.getQuantity() + delta);
+        return publishStockChange(lockedStock, delta);
+    }
+
+    private static BeerStockDTO centralStock(BeerDTO beer) {
+        return new BeerStockDTO(CENTRAL, beer.getMax(), beer.getQuantity());
+    }
+
+    private BeerStockDTO publishStockChange(BeerStock changedStock, int delta) {
+        BeerStockDTO after = beerStockMapper.toDTO(changedStock);
+        BeerStockDTO before = beerStockMapper.toDTO(changedStock);
+        before.setQuantity(after.getQuantity() - delta);
+        eventPublisher.publishEvent(new BeerStockChangedEvent(changedStock.getBeerId(), before, after));
+        return after;
+    }
+
+    private static long quantityOf(BeerStockDTO beerStockDTO) {
+        return beerStockDTO == null ? 0L : beerStockDTO.getQuantity();
+    }
+}
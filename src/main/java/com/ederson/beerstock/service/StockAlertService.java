@@ -0,0 +1,123 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.StockAlertProperties;
+import com.ederson.beerstock.config.StockThresholds;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockAlertDTO;
+import com.ederson.beerstock.enums.StockLevel;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class StockAlertService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockAlertService.class);
+
+    private final StockThresholds stockThresholds;
+    private final StockAlertProperties stockAlertProperties;
+    private final Executor dispatcher;
+    private final Set<StockAlertSubscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    @Autowired
+    public StockAlertService(StockThresholds stockThresholds, StockAlertProperties stockAlertProperties, MeterRegistry meterRegistry) {
+        this(stockThresholds, stockAlertProperties, meterRegistry, Executors.newCachedThreadPool());
+    }
+
+    StockAlertService(StockThresholds stockThresholds, StockAlertProperties stockAlertProperties, MeterRegistry meterRegistry, Executor dispatcher) {
+        this.stockThresholds = stockThresholds;
+        this.stockAlertProperties = stockAlertProperties;
+        this.dispatcher = dispatcher;
+        Gauge.builder("beerstock.alerts.subscribers", subscribers, Set::size)
+                .description("Connected stock alert subscribers")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(stockAlertProperties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        StockAlertSubscriber subscriber = new StockAlertSubscriber(emitter, stockAlertProperties.getBufferSize());
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO before = event.getBefore();
+        BeerDTO after = event.getAfter();
+        if (before == null || after == null || before.getQuantity().equals(after.getQuantity())) {
+            return;
+        }
+        StockLevel previousLevel = stockThresholds.levelOf(before.getQuantity(), before.getMax());
+        StockLevel level = stockThresholds.levelOf(after.getQuantity(), after.getMax());
+        if (previousLevel != level) {
+            publish(new StockAlertDTO(after.getId(), after.getName(), after.getQuantity(), after.getMax(), previousLevel, level));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.alerts.send-timeout}")
+    public int closeStalledSubscribers() {
+        return closeStalledSubscribers(System.nanoTime());
+    }
+
+    int closeStalledSubscribers(long now) {
+        long timeoutNanos = stockAlertProperties.getSendTimeout().toNanos();
+        int closed = 0;
+        for (StockAlertSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, timeoutNanos)) {
+                LOGGER.warn("Closing stock alert subscriber blocked on send for more than {}", stockAlertProperties.getSendTimeout());
+                unsubscribe(subscriber);
+                dispatcher.execute(subscriber.getEmitter()::complete);
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+    }
+
+    Set<StockAlertSubscriber> getSubscribers() {
+        return subscribers;
+    }
+
+    private void publish(StockAlertDTO alert) {
+        for (StockAlertSubscriber subscriber : subscribers) {
+            if (subscriber.isClosed()) {
+                subscribers.remove(subscriber);
+            } else if (subscriber.offer(alert)) {
+                dispatcher.execute(subscriber::drain);
+            }
+        }
+    }
+
+    private void unsubscribe(StockAlertSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+    }
+}
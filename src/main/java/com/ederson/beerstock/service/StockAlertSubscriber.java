@@ -0,0 +1,88 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.dto.StockAlertDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StockAlertSubscriber {
+
+    static final String ALERT_EVENT = "stock-alert";
+    static final String OVERFLOW_EVENT = "overflow";
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<StockAlertDTO> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long sendStartedAt;
+    private volatile boolean closed;
+
+    StockAlertSubscriber(SseEmitter emitter, int bufferSize) {
+        this.emitter = emitter;
+        this.pending = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean offer(StockAlertDTO alert) {
+        while (!pending.offer(alert)) {
+            if (pending.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        return draining.compareAndSet(false, true);
+    }
+
+    void drain() {
+        do {
+            try {
+                long overflow = dropped.getAndSet(0);
+                if (overflow > 0) {
+                    send(SseEmitter.event().name(OVERFLOW_EVENT).data(overflow));
+                }
+                StockAlertDTO alert;
+                while (!closed && (alert = pending.poll()) != null) {
+                    send(SseEmitter.event().name(ALERT_EVENT).data(alert));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                sendStartedAt = 0;
+            }
+            draining.set(false);
+        } while (!closed && !pending.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    boolean isStalled(long now, long timeoutNanos) {
+        long startedAt = sendStartedAt;
+        return startedAt != 0 && now - startedAt > timeoutNanos;
+    }
+
+    void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+        sendStartedAt = System.nanoTime();
+        emitter.send(event);
+    }
+}
@@ -0,0 +1,146 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.MetricsConfig;
+import com.ederson.beerstock.config.StockLedgerProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockLedgerEntryDTO;
+import com.ederson.beerstock.dto.StockLedgerPageDTO;
+import com.ederson.beerstock.dto.StockQuantityDTO;
+import com.ederson.beerstock.entity.StockMovement;
+import com.ederson.beerstock.entity.StockSnapshot;
+import com.ederson.beerstock.enums.StockMovementKind;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.mapper.StockMovementMapper;
+import com.ederson.beerstock.repository.MovementCompaction;
+import com.ederson.beerstock.repository.StockMovementRepository;
+import com.ederson.beerstock.repository.StockSnapshotRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@Lazy(false)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockLedgerService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final StockLedgerProperties stockLedgerProperties;
+    private final StockMovementMapper stockMovementMapper;
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO before = event.getBefore();
+        BeerDTO after = event.getAfter();
+        if (before == null) {
+            append(after.getId(), StockMovementKind.CREATED, after.getQuantity());
+        } else if (after == null) {
+            append(before.getId(), StockMovementKind.DELETED, -before.getQuantity());
+        } else {
+            int delta = after.getQuantity() - before.getQuantity();
+            if (delta != 0) {
+                append(after.getId(), delta > 0 ? StockMovementKind.INCREMENT : StockMovementKind.DECREMENT, delta);
+            }
+        }
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public StockLedgerPageDTO listMovements(Long beerId, Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<StockLedgerEntryDTO> movements = stockMovementRepository.findByBeerIdAndIdGreaterThanOrderByIdAsc(beerId, after == null ? 0L : after, PageRequest.of(0, pageSize))
+                .stream()
+                .map(stockMovementMapper::toDTO)
+                .collect(Collectors.toList());
+        Long next = movements.size() == pageSize ? movements.get(movements.size() - 1).getId() : null;
+        return new StockLedgerPageDTO(movements, next);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public StockQuantityDTO quantityAt(Long beerId, Instant asOf) {
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, asOf);
+        long lastMovementId = snapshot.map(StockSnapshot::getLastMovementId).orElse(0L);
+        long quantity = snapshot.map(StockSnapshot::getQuantity).orElse(0) + stockMovementRepository.sumDeltas(beerId, lastMovementId, asOf);
+        return new StockQuantityDTO(beerId, (int) quantity, asOf);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.ledger.compaction-interval}")
+    @Transactional
+    public int compact() {
+        List<MovementCompaction> compactions = stockMovementRepository.findPendingCompactions(watermark(),
+                stockLedgerProperties.getCompactionMinMovements(), PageRequest.of(0, stockLedgerProperties.getCompactionBatchSize()));
+        if (compactions.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> latestQuantities = stockSnapshotRepository.findLatestByBeerIdIn(compactions.stream()
+                .map(MovementCompaction::getBeerId)
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(StockSnapshot::getBeerId, StockSnapshot::getQuantity));
+        List<StockSnapshot> snapshots = compactions.stream()
+                .map(compaction -> new StockSnapshot(null, compaction.getBeerId(), compaction.getLastMovementId(),
+                        latestQuantities.getOrDefault(compaction.getBeerId(), 0) + compaction.getDelta().intValue(),
+                        compaction.getTakenAt()))
+                .collect(Collectors.toList());
+        stockSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * Appends the movement, keeping its id in flight until the transaction completes. Movements are not locked against
+     * each other, so a lower id can still commit after a higher one has been compacted.
+     */
+    private void append(Long beerId, StockMovementKind kind, int delta) {
+        long id;
+        synchronized (inFlight) {
+            id = stockMovementRepository.save(new StockMovement(null, beerId, kind, delta, Instant.now())).getId();
+            inFlight.add(id);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(id);
+                }
+            });
+        } else {
+            release(id);
+        }
+    }
+
+    private void release(long id) {
+        synchronized (inFlight) {
+            inFlight.remove(id);
+        }
+    }
+
+    /**
+     * The highest movement id below every movement still in flight. Ids are assigned under the same lock, so every id
+     * handed out later is above it.
+     */
+    private long watermark() {
+        synchronized (inFlight) {
+            return inFlight.isEmpty() ? Long.MAX_VALUE : inFlight.first() - 1;
+        }
+    }
+}
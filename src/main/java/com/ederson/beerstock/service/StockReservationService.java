@@ -0,0 +1,278 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.config.MetricsConfig;
+import com.ederson.beerstock.config.ReservationProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.entity.StockReservation;
+import com.ederson.beerstock.enums.ReservationStatus;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.ReservationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotHeldException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.mapper.StockReservationMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockReservationRepository;
+import com.ederson.beerstock.store.StockStore;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+
+@Service
+public class StockReservationService implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockReservationService.class);
+    private static final String OUTCOMES_COUNTER = "beerstock.reservations";
+    private static final Duration EXPIRY_RETRY = Duration.ofSeconds(1);
+
+    private final StockReservationRepository stockReservationRepository;
+    private final BeerRepository beerRepository;
+    private final StockStore stockStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationProperties reservationProperties;
+    private final StockReservationMapper stockReservationMapper;
+    private final BeerMapper beerMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, BeerHolds> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<ExpiringHold> expirations = new DelayQueue<>();
+    private volatile Thread expiryThread;
+
+    @Autowired
+    public StockReservationService(StockReservationRepository stockReservationRepository, BeerRepository beerRepository,
+                                   StockStore stockStore, ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                   ReservationProperties reservationProperties, StockReservationMapper stockReservationMapper,
+                                   BeerMapper beerMapper, MeterRegistry meterRegistry) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.beerRepository = beerRepository;
+        this.stockStore = stockStore;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationProperties = reservationProperties;
+        this.stockReservationMapper = stockReservationMapper;
+        this.beerMapper = beerMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public StockReservationDTO reserve(Long beerId, int quantity, Duration ttl) throws BeerNotFoundException, BeerStockInsufficientException {
+        BeerHolds beerHolds = holdsOf(beerId);
+        try {
+            if (!beerHolds.tryHold(() -> stockStore.quantity(beerId), quantity)) {
+                throw new BeerStockInsufficientException(beerId, quantity);
+            }
+        } catch (BeerNotFoundException e) {
+            forgetMissing(beerId);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    beerHolds.release(quantity);
+                }
+            }
+        });
+        Instant now = Instant.now();
+        StockReservation reservation = stockReservationRepository.save(new StockReservation(null, beerId, quantity, ReservationStatus.HELD, now, now.plus(ttlOf(ttl))));
+        expirations.add(new ExpiringHold(reservation.getId(), beerId, quantity, reservation.getExpiresAt()));
+        return stockReservationMapper.toDTO(reservation);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public StockReservationDTO commit(Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException, BeerStockInsufficientException {
+        StockReservation reservation = lockHeld(reservationId);
+        Long beerId = reservation.getBeerId();
+        int quantity = reservation.getQuantity();
+        Beer beer = beerRepository.findByIdForUpdate(beerId)
+                .orElseThrow(() -> new BeerStockInsufficientException(beerId, quantity));
+        int heldByOthers = Math.max(beginLowering(beerId, quantity) - quantity, 0);
+        Integer quantityAfterCommit = stockStore.applyQuantityDelta(beer, -quantity, heldByOthers);
+        if (quantityAfterCommit == null) {
+            throw new BeerStockInsufficientException(beerId, quantity);
+        }
+        BeerDTO after = beerMapper.toDTO(beer);
+        after.setQuantity(quantityAfterCommit);
+        BeerDTO before = beerMapper.toDTO(beer);
+        before.setQuantity(quantityAfterCommit + quantity);
+        stockReservationRepository.transition(reservationId, ReservationStatus.HELD, ReservationStatus.COMMITTED);
+        eventPublisher.publishEvent(new BeerChangedEvent(before, after));
+        // registered after the event so the new quantity is applied before the held units are released
+        releaseAfterCommit(beerId, quantity, ReservationStatus.COMMITTED);
+        reservation.setStatus(ReservationStatus.COMMITTED);
+        return stockReservationMapper.toDTO(reservation);
+    }
+
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public StockReservationDTO release(Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException {
+        StockReservation reservation = lockHeld(reservationId);
+        stockReservationRepository.transition(reservationId, ReservationStatus.HELD, ReservationStatus.RELEASED);
+        releaseAfterCommit(reservation.getBeerId(), reservation.getQuantity(), ReservationStatus.RELEASED);
+        reservation.setStatus(ReservationStatus.RELEASED);
+        return stockReservationMapper.toDTO(reservation);
+    }
+
+    public int heldQuantity(Long beerId) {
+        BeerHolds beerHolds = holds.get(beerId);
+        return beerHolds == null ? 0 : beerHolds.getHeld();
+    }
+
+    /**
+     * Announces that the current transaction is taking {@code units} out of the beer's stock, so no hold is granted
+     * against them until it completes.
+     *
+     * @return the units held for the beer, which the stock must not drop below
+     */
+    public int beginLowering(Long beerId, int units) {
+        BeerHolds beerHolds = holdsOf(beerId);
+        int held = beerHolds.startLowering(units);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                beerHolds.finishLowering(units);
+            }
+        });
+        return held;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getAfter() == null) {
+            holds.remove(event.getBefore().getId());
+        }
+    }
+
+    @Override
+    public void start() {
+        for (StockReservation reservation : stockReservationRepository.findByStatus(ReservationStatus.HELD)) {
+            if (beerRepository.existsById(reservation.getBeerId())) {
+                holdsOf(reservation.getBeerId()).hold(reservation.getQuantity());
+            } else {
+                LOGGER.warn("Reservation {} holds units of missing beer {}", reservation.getId(), reservation.getBeerId());
+            }
+            expirations.add(new ExpiringHold(reservation.getId(), reservation.getBeerId(), reservation.getQuantity(), reservation.getExpiresAt()));
+        }
+        expiryThread = new Thread(this::expireHolds, "reservation-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = expiryThread;
+        expiryThread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return expiryThread != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void expireHolds() {
+        while (expiryThread == Thread.currentThread()) {
+            ExpiringHold hold;
+            try {
+                hold = expirations.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                expire(hold);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not expire reservation {}, retrying", hold.getReservationId(), e);
+                expirations.add(hold.retryAt(Instant.now().plus(EXPIRY_RETRY)));
+            }
+        }
+    }
+
+    private void expire(ExpiringHold hold) {
+        Integer expired = transactionTemplate.execute(status -> stockReservationRepository.transition(hold.getReservationId(), ReservationStatus.HELD, ReservationStatus.EXPIRED));
+        if (expired != null && expired == 1) {
+            release(hold.getBeerId(), hold.getQuantity(), ReservationStatus.EXPIRED);
+        }
+    }
+
+    private StockReservation lockHeld(Long reservationId) throws ReservationNotFoundException, ReservationNotHeldException {
+        StockReservation reservation = stockReservationRepository.findByIdForUpdate(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservation.getStatus() != ReservationStatus.HELD) {
+            throw new ReservationNotHeldException(reservationId, reservation.getStatus());
+        }
+        return reservation;
+    }
+
+    private void releaseAfterCommit(Long beerId, int quantity, ReservationStatus outcome) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                release(beerId, quantity, outcome);
+            }
+        });
+    }
+
+    private void release(Long beerId, int quantity, ReservationStatus outcome) {
+        BeerHolds beerHolds = holds.get(beerId);
+        if (beerHolds != null) {
+            beerHolds.release(quantity);
+        }
+        Counter.builder(OUTCOMES_COUNTER)
+                .tag("outcome", outcome.name().toLowerCase())
+                .description("Reservations that left the held state")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void forgetMissing(Long beerId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                BeerHolds beerHolds = holds.get(beerId);
+                if (beerHolds != null && beerHolds.retire()) {
+                    holds.remove(beerId, beerHolds);
+                }
+            }
+        });
+    }
+
+    private BeerHolds holdsOf(Long beerId) {
+        return holds.computeIfAbsent(beerId, id -> new BeerHolds());
+    }
+
+    private Duration ttlOf(Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            return reservationProperties.getTtl();
+        }
+        return ttl.compareTo(reservationProperties.getMaxTtl()) > 0 ? reservationProperties.getMaxTtl() : ttl;
+    }
+}
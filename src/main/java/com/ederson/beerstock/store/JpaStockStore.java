@@ -0,0 +1,65 @@
+package com.ederson.beerstock.store;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@ConditionalOnProperty(name = "beerstock.store.engine", havingValue = "jpa", matchIfMissing = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class JpaStockStore implements StockStore {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+
+    @Override
+    @Transactional
+    public BeerDTO applyQuantityDelta(Long id, int delta) throws BeerNotFoundException {
+        return changed(id, beerRepository.applyQuantityDelta(id, delta));
+    }
+
+    @Override
+    @Transactional
+    public BeerDTO applyQuantityDelta(Long id, int delta, int reserved) throws BeerNotFoundException {
+        return changed(id, beerRepository.applyQuantityDelta(id, delta, reserved));
+    }
+
+    @Override
+    public Integer applyQuantityDelta(Beer lockedBeer, int delta, int reserved) {
+        int quantity = lockedBeer.getQuantity() + delta;
+        if (quantity < reserved || quantity < 0 || quantity > lockedBeer.getMax()) {
+            return null;
+        }
+        lockedBeer.setQuantity(quantity);
+        return quantity;
+    }
+
+    @Override
+    public int quantityOf(Beer beer) {
+        return beer.getQuantity();
+    }
+
+    @Override
+    public int quantity(Long id) throws BeerNotFoundException {
+        return beerRepository.findQuantityById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+    }
+
+    @Override
+    public BeerDTO withCurrentQuantity(BeerDTO beer) {
+        return beer;
+    }
+
+    private BeerDTO changed(Long id, int updated) throws BeerNotFoundException {
+        Beer beer = beerRepository.findById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        return updated == 0 ? null : beerMapper.toDTO(beer);
+    }
+}
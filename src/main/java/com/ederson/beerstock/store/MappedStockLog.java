@@ -0,0 +1,112 @@
+package com.ederson.beerstock.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class MappedStockLog {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final AtomicInteger position = new AtomicInteger();
+    private MappedByteBuffer buffer;
+    private long segment;
+
+    MappedStockLog(Path directory, int segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.fsync = fsync;
+    }
+
+    List<Long> segments() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    Map<Long, Integer> read(long segment) throws IOException {
+        Map<Long, Integer> deltas = new HashMap<>();
+        try (FileChannel file = FileChannel.open(path(segment), StandardOpenOption.READ)) {
+            MappedByteBuffer records = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            for (int offset = 0; offset + RECORD_SIZE <= records.limit(); offset += RECORD_SIZE) {
+                long beerId = records.getLong(offset);
+                int delta = records.getInt(offset + Long.BYTES);
+                if (beerId != 0L && delta != 0) {
+                    deltas.merge(beerId, delta, Integer::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    void open(long segment) throws IOException {
+        Files.createDirectories(directory);
+        try (FileChannel file = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        this.segment = segment;
+        this.position.set(0);
+    }
+
+    boolean append(long beerId, int delta) {
+        int offset = position.getAndAdd(RECORD_SIZE);
+        if (offset + RECORD_SIZE > segmentSize) {
+            return false;
+        }
+        buffer.putInt(offset + Long.BYTES, delta);
+        buffer.putLong(offset, beerId);
+        if (fsync) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    long rotate() throws IOException {
+        long closed = segment;
+        buffer.force();
+        open(closed + 1);
+        return closed;
+    }
+
+    long currentSegment() {
+        return segment;
+    }
+
+    void deleteUpTo(long segment) throws IOException {
+        for (Long existing : segments()) {
+            if (existing <= segment && existing != this.segment) {
+                Files.deleteIfExists(path(existing));
+            }
+        }
+    }
+
+    void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+}
@@ -0,0 +1,413 @@
+package com.ederson.beerstock.store;
+
+import com.ederson.beerstock.config.StockStoreProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.entity.WriteBehindCheckpoint;
+import com.ederson.beerstock.enums.WriteBehindDurability;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.WriteBehindCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@Lazy(false)
+@ConditionalOnProperty(name = "beerstock.store.engine", havingValue = "off-heap")
+public class OffHeapStockStore implements StockStore, SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapStockStore.class);
+    private static final String CHECKPOINT = "off-heap-stock";
+    private static final long NO_SEGMENT = -1L;
+
+    private final BeerRepository beerRepository;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockStoreProperties properties;
+    private final BeerMapper beerMapper;
+    private final StockSlots slots;
+    private final AtomicReferenceArray<BeerDTO> beers;
+    private final Map<Long, Integer> slotsById = new ConcurrentHashMap<>();
+    private final Queue<Integer> retiredSlots = new ConcurrentLinkedQueue<>();
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ReadWriteLock logLock = new ReentrantReadWriteLock();
+    private final Counter writes;
+    private final Counter rejected;
+    private MappedStockLog log;
+    private volatile boolean running;
+
+    @Autowired
+    public OffHeapStockStore(BeerRepository beerRepository, WriteBehindCheckpointRepository checkpointRepository,
+                             TransactionTemplate transactionTemplate, StockStoreProperties properties,
+                             BeerMapper beerMapper, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.beerMapper = beerMapper;
+        this.slots = new StockSlots(properties.getCapacity());
+        this.beers = new AtomicReferenceArray<>(properties.getCapacity());
+        Gauge.builder("beerstock.store.slots", slotsById, Map::size)
+                .description("Off-heap stock slots in use")
+                .register(meterRegistry);
+        this.writes = Counter.builder("beerstock.store.writes")
+                .description("Coalesced row updates written by checkpoints")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("beerstock.store.rejected")
+                .description("Acknowledged units the database refused at checkpoint time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public BeerDTO applyQuantityDelta(Long id, int delta) throws BeerNotFoundException {
+        return apply(id, delta, 0);
+    }
+
+    @Override
+    public BeerDTO applyQuantityDelta(Long id, int delta, int reserved) throws BeerNotFoundException {
+        return apply(id, delta, reserved);
+    }
+
+    @Override
+    public Integer applyQuantityDelta(Beer lockedBeer, int delta, int reserved) {
+        Long id = lockedBeer.getId();
+        if (!slotsById.containsKey(id)) {
+            register(beerMapper.toDTO(lockedBeer));
+            afterRollback(() -> unregister(id));
+        }
+        int slot = slotsById.get(id);
+        int max = slots.max(slot);
+        if (max != lockedBeer.getMax()) {
+            slots.setMax(slot, lockedBeer.getMax());
+            afterRollback(() -> slots.setMax(slot, max));
+        }
+        try {
+            BeerDTO changed = apply(id, delta, reserved);
+            return changed == null ? null : changed.getQuantity();
+        } catch (BeerNotFoundException e) {
+            throw new IllegalStateException("Locked beer " + id + " left the off-heap stock store", e);
+        }
+    }
+
+    @Override
+    public int quantityOf(Beer beer) {
+        Integer slot = slotsById.get(beer.getId());
+        return slot == null ? beer.getQuantity() : slots.quantity(slot);
+    }
+
+    @Override
+    public int quantity(Long id) throws BeerNotFoundException {
+        Integer slot = slotsById.get(id);
+        if (slot != null) {
+            return slots.quantity(slot);
+        }
+        return beerRepository.findQuantityById(id)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+    }
+
+    @Override
+    public BeerDTO withCurrentQuantity(BeerDTO beer) {
+        Integer slot = slotsById.get(beer.getId());
+        return slot == null ? beer : withQuantity(beer, slots.quantity(slot));
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.store.checkpoint-interval}")
+    public synchronized int checkpoint() {
+        if (!running) {
+            return 0;
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        long segment;
+        logLock.writeLock().lock();
+        try {
+            for (Integer slot = retiredSlots.poll(); slot != null; slot = retiredSlots.poll()) {
+                freeSlots.add(slot);
+            }
+            slotsById.forEach((id, slot) -> {
+                int delta = slots.drain(slot);
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            segment = rotateLog();
+        } catch (RuntimeException e) {
+            restore(deltas);
+            throw e;
+        } finally {
+            logLock.writeLock().unlock();
+        }
+        int applied;
+        try {
+            applied = write(deltas, segment);
+        } catch (RuntimeException e) {
+            restore(deltas);
+            throw e;
+        }
+        deleteLogUpTo(segment);
+        return applied;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getAfter() == null) {
+            unregister(event.getBefore().getId());
+            return;
+        }
+        BeerDTO after = event.getAfter();
+        Integer slot = slotsById.get(after.getId());
+        if (slot == null) {
+            register(after);
+            return;
+        }
+        BeerDTO described = beers.get(slot);
+        if (described == null || !sameDescription(described, after)) {
+            beers.set(slot, withQuantity(after, 0));
+            slots.setMax(slot, after.getMax());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (properties.getDurability() != WriteBehindDurability.NONE) {
+            try {
+                recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> beerRepository.findAll().forEach(beer -> register(beerMapper.toDTO(beer))));
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        checkpoint();
+        running = false;
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private BeerDTO apply(Long id, int delta, int floor) throws BeerNotFoundException {
+        while (true) {
+            logLock.readLock().lock();
+            try {
+                Integer slot = slotsById.get(id);
+                BeerDTO described = slot == null ? null : beers.get(slot);
+                if (described == null) {
+                    throw new BeerNotFoundException(id);
+                }
+                int quantity = slots.apply(slot, delta, floor);
+                if (quantity == StockSlots.REJECTED) {
+                    return null;
+                }
+                if (log == null || log.append(id, delta)) {
+                    afterRollback(() -> compensate(id, delta));
+                    return withQuantity(described, quantity);
+                }
+                slots.undo(slot, delta);
+            } finally {
+                logLock.readLock().unlock();
+            }
+            checkpoint();
+        }
+    }
+
+    private void compensate(Long id, int delta) {
+        while (true) {
+            logLock.readLock().lock();
+            try {
+                Integer slot = slotsById.get(id);
+                if (slot == null) {
+                    return;
+                }
+                slots.undo(slot, delta);
+                if (log == null || log.append(id, -delta)) {
+                    return;
+                }
+                slots.undo(slot, -delta);
+            } finally {
+                logLock.readLock().unlock();
+            }
+            checkpoint();
+        }
+    }
+
+    private void restore(Map<Long, Integer> deltas) {
+        deltas.forEach((id, delta) -> {
+            Integer slot = slotsById.get(id);
+            if (slot != null) {
+                slots.restore(slot, delta);
+            }
+        });
+    }
+
+    private void register(BeerDTO beer) {
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            slot = nextSlot.getAndIncrement();
+            if (slot >= slots.capacity()) {
+                nextSlot.decrementAndGet();
+                throw new IllegalStateException("Off-heap stock store is full, raise beerstock.store.capacity above " + slots.capacity());
+            }
+        }
+        beers.set(slot, withQuantity(beer, 0));
+        slots.reset(slot, beer.getQuantity(), beer.getMax());
+        slotsById.put(beer.getId(), slot);
+    }
+
+    private void unregister(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            beers.set(slot, null);
+            retiredSlots.add(slot);
+        }
+    }
+
+    private void recover() throws IOException {
+        log = new MappedStockLog(Paths.get(properties.getLogDir()), (int) properties.getLogSegmentSize().toBytes(), properties.getDurability() == WriteBehindDurability.FSYNC);
+        long checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .map(WriteBehindCheckpoint::getSegment)
+                .orElse(NO_SEGMENT);
+        List<Long> segments = log.segments();
+        Map<Long, Integer> deltas = new HashMap<>();
+        long lastSegment = checkpoint;
+        for (Long segment : segments) {
+            if (segment > checkpoint) {
+                log.read(segment).forEach((id, delta) -> deltas.merge(id, delta, Integer::sum));
+            }
+            lastSegment = Math.max(lastSegment, segment);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            int applied = write(deltas, lastSegment);
+            LOGGER.info("Replayed {} logged stock changes from segments after {}", applied, checkpoint);
+        }
+        log.open(lastSegment + 1);
+        log.deleteUpTo(lastSegment);
+    }
+
+    private int write(Map<Long, Integer> deltas, long segment) {
+        return transactionTemplate.execute(status -> {
+            int applied = 0;
+            Set<Long> refused = new HashSet<>();
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                if (beerRepository.applyQuantityDelta(delta.getKey(), delta.getValue()) == 1) {
+                    applied++;
+                } else {
+                    refused.add(delta.getKey());
+                    rejected.increment(Math.abs(delta.getValue()));
+                    LOGGER.warn("Dropped {} acknowledged units for beer {} rejected by the database", delta.getValue(), delta.getKey());
+                }
+            }
+            for (Beer beer : beerRepository.findAllById(refused)) {
+                Integer slot = slotsById.get(beer.getId());
+                if (slot != null) {
+                    slots.rebase(slot, beer.getQuantity());
+                }
+            }
+            writes.increment(applied);
+            if (segment != NO_SEGMENT) {
+                checkpointRepository.save(new WriteBehindCheckpoint(CHECKPOINT, segment));
+            }
+            return applied;
+        });
+    }
+
+    private long rotateLog() {
+        if (log == null) {
+            return NO_SEGMENT;
+        }
+        try {
+            return log.rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteLogUpTo(long segment) {
+        if (log == null || segment == NO_SEGMENT) {
+            return;
+        }
+        try {
+            log.deleteUpTo(segment);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete checkpointed stock store log segments", e);
+        }
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static boolean sameDescription(BeerDTO described, BeerDTO beer) {
+        return Objects.equals(described.getName(), beer.getName())
+                && Objects.equals(described.getBrand(), beer.getBrand())
+                && Objects.equals(described.getMax(), beer.getMax())
+                && described.getType() == beer.getType();
+    }
+
+    private static BeerDTO withQuantity(BeerDTO beer, int quantity) {
+        return new BeerDTO(beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(), quantity, beer.getType());
+    }
+}
@@ -0,0 +1,119 @@
+package com.ederson.beerstock.store;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+final class StockSlots {
+
+    static final int REJECTED = Integer.MIN_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final int SLOT_SIZE = 16;
+    private static final int MAX_OFFSET = Long.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    StockSlots(int capacity) {
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, SLOT_SIZE)).order(ByteOrder.nativeOrder());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void reset(int slot, int quantity, int max) {
+        INTS.setVolatile(buffer, offset(slot) + MAX_OFFSET, max);
+        LONGS.setVolatile(buffer, offset(slot), pack(quantity, 0));
+    }
+
+    void setMax(int slot, int max) {
+        INTS.setVolatile(buffer, offset(slot) + MAX_OFFSET, max);
+    }
+
+    int max(int slot) {
+        return (int) INTS.getVolatile(buffer, offset(slot) + MAX_OFFSET);
+    }
+
+    int quantity(int slot) {
+        return quantityOf((long) LONGS.getVolatile(buffer, offset(slot)));
+    }
+
+    int pending(int slot) {
+        return pendingOf((long) LONGS.getVolatile(buffer, offset(slot)));
+    }
+
+    int apply(int slot, int delta, int floor) {
+        int offset = offset(slot);
+        while (true) {
+            long state = (long) LONGS.getVolatile(buffer, offset);
+            int quantity = quantityOf(state) + delta;
+            if (quantity < floor || quantity > (int) INTS.getVolatile(buffer, offset + MAX_OFFSET)) {
+                return REJECTED;
+            }
+            if (LONGS.compareAndSet(buffer, offset, state, pack(quantity, pendingOf(state) + delta))) {
+                return quantity;
+            }
+        }
+    }
+
+    void undo(int slot, int delta) {
+        int offset = offset(slot);
+        while (true) {
+            long state = (long) LONGS.getVolatile(buffer, offset);
+            if (LONGS.compareAndSet(buffer, offset, state, pack(quantityOf(state) - delta, pendingOf(state) - delta))) {
+                return;
+            }
+        }
+    }
+
+    int drain(int slot) {
+        int offset = offset(slot);
+        while (true) {
+            long state = (long) LONGS.getVolatile(buffer, offset);
+            if (pendingOf(state) == 0 || LONGS.compareAndSet(buffer, offset, state, pack(quantityOf(state), 0))) {
+                return pendingOf(state);
+            }
+        }
+    }
+
+    void restore(int slot, int pending) {
+        int offset = offset(slot);
+        while (true) {
+            long state = (long) LONGS.getVolatile(buffer, offset);
+            if (LONGS.compareAndSet(buffer, offset, state, pack(quantityOf(state), pendingOf(state) + pending))) {
+                return;
+            }
+        }
+    }
+
+    void rebase(int slot, int persisted) {
+        int offset = offset(slot);
+        while (true) {
+            long state = (long) LONGS.getVolatile(buffer, offset);
+            if (LONGS.compareAndSet(buffer, offset, state, pack(persisted + pendingOf(state), pendingOf(state)))) {
+                return;
+            }
+        }
+    }
+
+    private static int offset(int slot) {
+        return slot * SLOT_SIZE;
+    }
+
+    private static long pack(int quantity, int pending) {
+        return ((long) quantity << 32) | (pending & 0xFFFFFFFFL);
+    }
+
+    private static int quantityOf(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int pendingOf(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ederson.beerstock.store;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+
+public interface StockStore {
+
+    /**
+     * Adds {@code delta} to the quantity of a beer as long as it stays between zero and its max.
+     *
+     * @return the beer after the change, or {@code null} when the change would leave those bounds
+     */
+    BeerDTO applyQuantityDelta(Long id, int delta) throws BeerNotFoundException;
+
+    /**
+     * Same as {@link #applyQuantityDelta(Long, int)}, keeping at least {@code reserved} units in stock.
+     */
+    BeerDTO applyQuantityDelta(Long id, int delta, int reserved) throws BeerNotFoundException;
+
+    /**
+     * Same as {@link #applyQuantityDelta(Long, int, int)} for a beer the current transaction has loaded and locked,
+     * bounded by the max it holds.
+     *
+     * @return the quantity after the change, or {@code null} when the change would leave the bounds
+     */
+    Integer applyQuantityDelta(Beer lockedBeer, int delta, int reserved);
+
+    /**
+     * Current quantity of a loaded beer, which may be ahead of the quantity read from the database.
+     */
+    int quantityOf(Beer beer);
+
+    /**
+     * Current quantity of a beer, read without loading or locking it.
+     */
+    int quantity(Long id) throws BeerNotFoundException;
+
+    /**
+     * The beer with the quantity this store holds for it, for beers read from a database that may lag behind.
+     */
+    BeerDTO withCurrentQuantity(BeerDTO beer);
+}
@@ -0,0 +1,83 @@
+package com.ederson.beerstock.writebehind;
+
+import com.ederson.beerstock.dto.BeerDTO;
+
+class StockCounter {
+
+    private BeerDTO persisted;
+    private int pending;
+    private int inFlight;
+    private boolean retired;
+    private boolean stale;
+
+    StockCounter(BeerDTO persisted) {
+        this.persisted = persisted;
+    }
+
+    synchronized BeerDTO tryIncrement(int delta) {
+        if (retired) {
+            return null;
+        }
+        int quantity = persisted.getQuantity() + inFlight + pending + delta;
+        if (quantity < 0 || quantity > persisted.getMax()) {
+            return null;
+        }
+        pending += delta;
+        return withQuantity(persisted, quantity);
+    }
+
+    synchronized void undo(int delta) {
+        pending -= delta;
+    }
+
+    synchronized int drain() {
+        int delta = pending;
+        pending = 0;
+        inFlight += delta;
+        return delta;
+    }
+
+    synchronized boolean confirm(int delta, BeerDTO flushed) {
+        inFlight -= delta;
+        persisted = flushed;
+        boolean changedDuringFlush = stale;
+        stale = false;
+        return changedDuringFlush;
+    }
+
+    synchronized void restore(int delta) {
+        inFlight -= delta;
+        pending += delta;
+    }
+
+    synchronized boolean refresh(BeerDTO changed) {
+        if (pending == 0 && inFlight == 0) {
+            retired = true;
+            return false;
+        }
+        if (inFlight == 0) {
+            persisted = changed;
+        } else {
+            stale = true;
+        }
+        return true;
+    }
+
+    synchronized void rebase(BeerDTO reloaded) {
+        if (inFlight == 0) {
+            persisted = reloaded;
+        }
+    }
+
+    synchronized void retire() {
+        retired = true;
+    }
+
+    synchronized boolean isRetired() {
+        return retired;
+    }
+
+    private static BeerDTO withQuantity(BeerDTO beer, int quantity) {
+        return new BeerDTO(beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(), quantity, beer.getType());
+    }
+}
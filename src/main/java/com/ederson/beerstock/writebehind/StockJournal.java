@@ -0,0 +1,106 @@
+package com.ederson.beerstock.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StockJournal {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long segment;
+
+    StockJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    List<Long> segments() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    Map<Long, Integer> read(long segment) throws IOException {
+        Map<Long, Integer> deltas = new HashMap<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        try (FileChannel file = FileChannel.open(path(segment), StandardOpenOption.READ)) {
+            while (file.read(record) == RECORD_SIZE) {
+                record.flip();
+                deltas.merge(record.getLong(), record.getInt(), Integer::sum);
+                record.clear();
+            }
+        }
+        return deltas;
+    }
+
+    void open(long segment) throws IOException {
+        Files.createDirectories(directory);
+        this.segment = segment;
+        this.channel = FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    void append(Long beerId, int delta) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).putLong(beerId).putInt(delta);
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long rotate() throws IOException {
+        long closed = segment;
+        close();
+        open(closed + 1);
+        return closed;
+    }
+
+    long currentSegment() {
+        return segment;
+    }
+
+    void deleteUpTo(long segment) throws IOException {
+        for (Long existing : segments()) {
+            if (existing <= segment && existing != this.segment) {
+                Files.deleteIfExists(path(existing));
+            }
+        }
+    }
+
+    void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+}
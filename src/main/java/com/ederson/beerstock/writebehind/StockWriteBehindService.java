@@ -0,0 +1,330 @@
+package com.ederson.beerstock.writebehind;
+
+import com.ederson.beerstock.config.StockStoreProperties;
+import com.ederson.beerstock.config.WriteBehindProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.entity.WriteBehindCheckpoint;
+import com.ederson.beerstock.enums.StockStoreEngine;
+import com.ederson.beerstock.enums.WriteBehindDurability;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.WriteBehindCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Lazy(false)
+public class StockWriteBehindService implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockWriteBehindService.class);
+    private static final String CHECKPOINT = "stock-increments";
+    private static final long NO_SEGMENT = -1L;
+
+    private final BeerRepository beerRepository;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+    private final BeerMapper beerMapper;
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final Counter acknowledged;
+    private final Counter writes;
+    private final Counter rejected;
+    private StockJournal journal;
+    private volatile boolean running;
+
+    @Autowired
+    public StockWriteBehindService(BeerRepository beerRepository, WriteBehindCheckpointRepository checkpointRepository,
+                                   ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                   WriteBehindProperties properties, StockStoreProperties stockStoreProperties,
+                                   BeerMapper beerMapper, MeterRegistry meterRegistry) {
+        if (properties.isEnabled() && stockStoreProperties.getEngine() == StockStoreEngine.OFF_HEAP) {
+            throw new IllegalStateException("beerstock.write-behind.enabled cannot be combined with beerstock.store.engine=off-heap, "
+                    + "whose checkpoints already batch stock changes and would accept the same headroom twice");
+        }
+        this.beerRepository = beerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.beerMapper = beerMapper;
+        this.acknowledged = Counter.builder("beerstock.write-behind.increments")
+                .description("Increments acknowledged before reaching the database")
+                .register(meterRegistry);
+        this.writes = Counter.builder("beerstock.write-behind.writes")
+                .description("Coalesced row updates written by flushes")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("beerstock.write-behind.rejected")
+                .description("Acknowledged units the database refused at flush time")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        if (quantityToIncrement <= 0) {
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+        while (true) {
+            StockCounter counter = counterOf(id);
+            journalLock.readLock().lock();
+            try {
+                BeerDTO incremented = counter.tryIncrement(quantityToIncrement);
+                if (incremented != null) {
+                    journal(counter, id, quantityToIncrement);
+                    acknowledged.increment();
+                    return incremented;
+                }
+            } finally {
+                journalLock.readLock().unlock();
+            }
+            if (!counter.isRetired()) {
+                throw new BeerStockExceededException(id, quantityToIncrement);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.write-behind.flush-interval}")
+    public synchronized int flush() {
+        if (!running) {
+            return 0;
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        Map<Long, StockCounter> drained = new HashMap<>();
+        long segment;
+        journalLock.writeLock().lock();
+        try {
+            counters.forEach((id, counter) -> {
+                int delta = counter.drain();
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                    drained.put(id, counter);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            segment = rotateJournal();
+        } catch (RuntimeException e) {
+            drained.forEach((id, counter) -> counter.restore(deltas.get(id)));
+            throw e;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        Set<Long> applied = new HashSet<>();
+        Map<Long, BeerDTO> flushed;
+        try {
+            flushed = write(deltas, segment, applied);
+        } catch (RuntimeException e) {
+            drained.forEach((id, counter) -> counter.restore(deltas.get(id)));
+            throw e;
+        }
+        Map<Long, StockCounter> stale = new HashMap<>();
+        drained.forEach((id, counter) -> {
+            BeerDTO beer = flushed.get(id);
+            if (beer == null) {
+                counter.retire();
+                counters.remove(id, counter);
+            } else if (counter.confirm(deltas.get(id), beer)) {
+                stale.put(id, counter);
+            }
+        });
+        if (!stale.isEmpty()) {
+            beerRepository.findAllById(stale.keySet())
+                    .forEach(beer -> stale.get(beer.getId()).rebase(beerMapper.toDTO(beer)));
+        }
+        deleteJournalUpTo(segment);
+        return applied.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (Thread.holdsLock(this)) {
+            // published by our own flush, which confirms its counters itself
+            return;
+        }
+        if (event.getAfter() == null) {
+            StockCounter counter = counters.remove(event.getBefore().getId());
+            if (counter != null) {
+                counter.retire();
+            }
+            return;
+        }
+        StockCounter counter = counters.get(event.getAfter().getId());
+        if (counter != null && !counter.refresh(event.getAfter())) {
+            counters.remove(event.getAfter().getId(), counter);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getDurability() != WriteBehindDurability.NONE) {
+            try {
+                recover();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        flush();
+        running = false;
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the write-behind journal", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void recover() throws IOException {
+        journal = new StockJournal(Paths.get(properties.getJournalDir()), properties.getDurability() == WriteBehindDurability.FSYNC);
+        long checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .map(WriteBehindCheckpoint::getSegment)
+                .orElse(NO_SEGMENT);
+        List<Long> segments = journal.segments();
+        Map<Long, Integer> deltas = new HashMap<>();
+        long lastSegment = checkpoint;
+        for (Long segment : segments) {
+            if (segment > checkpoint) {
+                journal.read(segment).forEach((id, delta) -> deltas.merge(id, delta, Integer::sum));
+            }
+            lastSegment = Math.max(lastSegment, segment);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            Set<Long> applied = new HashSet<>();
+            write(deltas, lastSegment, applied);
+            LOGGER.info("Replayed {} journaled beer increments from segments after {}", applied.size(), checkpoint);
+        }
+        journal.open(lastSegment + 1);
+        journal.deleteUpTo(lastSegment);
+    }
+
+    private Map<Long, BeerDTO> write(Map<Long, Integer> deltas, long segment, Set<Long> applied) {
+        return transactionTemplate.execute(status -> {
+            deltas.forEach((id, delta) -> {
+                if (beerRepository.applyQuantityDelta(id, delta) == 1) {
+                    applied.add(id);
+                }
+            });
+            Map<Long, BeerDTO> beers = beerRepository.findAllById(deltas.keySet())
+                    .stream()
+                    .map(beerMapper::toDTO)
+                    .collect(Collectors.toMap(BeerDTO::getId, Function.identity()));
+            deltas.forEach((id, delta) -> {
+                if (applied.contains(id)) {
+                    publishStockChange(beers.get(id), delta);
+                } else {
+                    rejected.increment(Math.abs(delta));
+                    LOGGER.warn("Dropped {} acknowledged units for beer {} rejected by the database", delta, id);
+                }
+            });
+            writes.increment(applied.size());
+            if (segment != NO_SEGMENT) {
+                checkpointRepository.save(new WriteBehindCheckpoint(CHECKPOINT, segment));
+            }
+            return beers;
+        });
+    }
+
+    private void publishStockChange(BeerDTO after, int delta) {
+        BeerDTO before = new BeerDTO(after.getId(), after.getName(), after.getBrand(), after.getMax(), after.getQuantity() - delta, after.getType());
+        eventPublisher.publishEvent(new BeerChangedEvent(before, after));
+    }
+
+    private StockCounter counterOf(Long id) throws BeerNotFoundException {
+        StockCounter counter = counters.get(id);
+        if (counter != null && !counter.isRetired()) {
+            return counter;
+        }
+        BeerDTO beer = beerRepository.findById(id)
+                .map(beerMapper::toDTO)
+                .orElseThrow(() -> new BeerNotFoundException(id));
+        return counters.compute(id, (key, existing) -> existing == null || existing.isRetired() ? new StockCounter(beer) : existing);
+    }
+
+    private void journal(StockCounter counter, Long id, int delta) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(id, delta);
+        } catch (UncheckedIOException e) {
+            counter.undo(delta);
+            throw e;
+        }
+    }
+
+    private long rotateJournal() {
+        if (journal == null) {
+            return NO_SEGMENT;
+        }
+        try {
+            return journal.rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteJournalUpTo(long segment) {
+        if (journal == null || segment == NO_SEGMENT) {
+            return;
+        }
+        try {
+            journal.deleteUpTo(segment);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete flushed write-behind journal segments", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.ederson.beerstock.config;
+
+import com.ederson.beerstock.service.BeerService;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import springfox.documentation.spring.web.plugins.Docket;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("prod")
+public class ProdProfileTest {
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void whenProdProfileIsActiveThenSwaggerIsOffAndServicesAreCreatedOnDemand() {
+        MatcherAssert.assertThat(this.applicationContext.getBeanNamesForType(Docket.class), Matchers.is(Matchers.emptyArray()));
+        MatcherAssert.assertThat(this.beanFactory.containsSingleton("beerService"), Matchers.is(Matchers.equalTo(false)));
+        MatcherAssert.assertThat(this.beanFactory.containsSingleton("stockLedgerService"), Matchers.is(Matchers.equalTo(true)));
+        MatcherAssert.assertThat(this.applicationContext.getBean(BeerService.class).listAll(), Matchers.is(Matchers.empty()));
+    }
+}
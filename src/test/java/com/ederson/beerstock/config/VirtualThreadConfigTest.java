@@ -0,0 +1,23 @@
+package com.ederson.beerstock.config;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+public class VirtualThreadConfigTest {
+
+    @Test
+    void whenRuntimeSupportsVirtualThreadsThenRequestsRunOnVirtualThreads() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            Assertions.assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+            return;
+        }
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        Object isVirtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+        executor.shutdown();
+        MatcherAssert.assertThat(isVirtual, Matchers.is(Matchers.equalTo(Boolean.TRUE)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ederson.beerstock.controller;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BeerControllerBinaryFormatTest {
+    private static final String BEER_API_URL_PATH = "/api/beers";
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(BeerController.APPLICATION_SMILE_VALUE);
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenPOSTIsCalledWithCborThenBeerIsCreatedAndReturnedAsCbor() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.post(BEER_API_URL_PATH, new Object[0]).contentType(MediaType.APPLICATION_CBOR).accept(new MediaType[]{MediaType.APPLICATION_CBOR}).content(this.cborMapper.writeValueAsBytes(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated()).andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)).andReturn();
+        BeerDTO createdBeerDTO = this.cborMapper.readValue(result.getResponse().getContentAsByteArray(), BeerDTO.class);
+        MatcherAssert.assertThat(createdBeerDTO.getName(), Matchers.is(Matchers.equalTo(beerDTO.getName())));
+        MatcherAssert.assertThat(createdBeerDTO.getType(), Matchers.is(Matchers.equalTo(beerDTO.getType())));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithInvalidCborThenBadRequestIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        beerDTO.setName(null);
+        this.mockMvc.perform(MockMvcRequestBuilders.post(BEER_API_URL_PATH, new Object[0]).contentType(MediaType.APPLICATION_CBOR).content(this.cborMapper.writeValueAsBytes(beerDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenGETIsCalledAcceptingCborThenBeersAreReturnedAsCbor() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        this.mockMvc.perform(MockMvcRequestBuilders.post(BEER_API_URL_PATH, new Object[0]).contentType(MediaType.APPLICATION_CBOR).content(this.cborMapper.writeValueAsBytes(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated());
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH, new Object[0]).accept(new MediaType[]{MediaType.APPLICATION_CBOR})).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)).andReturn();
+        List<BeerDTO> beers = this.cborMapper.readValue(result.getResponse().getContentAsByteArray(), new TypeReference<List<BeerDTO>>() {});
+        MatcherAssert.assertThat(beers.get(0).getName(), Matchers.is(Matchers.equalTo(beerDTO.getName())));
+        this.mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH, new Object[0])).andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void whenGETStreamIsCalledAcceptingCborThenBeersAreStreamedAsCbor() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        this.mockMvc.perform(MockMvcRequestBuilders.post(BEER_API_URL_PATH, new Object[0]).contentType(MediaType.APPLICATION_CBOR).content(this.cborMapper.writeValueAsBytes(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated());
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/stream", new Object[0]).accept(new MediaType[]{MediaType.APPLICATION_CBOR})).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+        MvcResult streamed = this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)).andReturn();
+        List<BeerDTO> beers = this.cborMapper.readValue(streamed.getResponse().getContentAsByteArray(), new TypeReference<List<BeerDTO>>() {});
+        MatcherAssert.assertThat(beers.get(0).getName(), Matchers.is(Matchers.equalTo(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETPageIsCalledAcceptingSmileThenPageIsReturnedAsSmile() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        this.mockMvc.perform(MockMvcRequestBuilders.post(BEER_API_URL_PATH, new Object[0]).contentType(APPLICATION_SMILE).content(this.smileMapper.writeValueAsBytes(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated());
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "?limit=10", new Object[0]).accept(new MediaType[]{APPLICATION_SMILE})).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().contentType(APPLICATION_SMILE)).andReturn();
+        BeerPageDTO beerPageDTO = this.smileMapper.readValue(result.getResponse().getContentAsByteArray(), BeerPageDTO.class);
+        MatcherAssert.assertThat(beerPageDTO.getBeers().get(0).getName(), Matchers.is(Matchers.equalTo(beerDTO.getName())));
+        MvcResult streamResult = this.mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/stream", new Object[0]).accept(new MediaType[]{APPLICATION_SMILE})).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+        MvcResult streamed = this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(streamResult)).andExpect(MockMvcResultMatchers.content().contentType(APPLICATION_SMILE)).andReturn();
+        List<BeerDTO> beers = this.smileMapper.readValue(streamed.getResponse().getContentAsByteArray(), new TypeReference<List<BeerDTO>>() {});
+        MatcherAssert.assertThat(beers.get(0).getName(), Matchers.is(Matchers.equalTo(beerDTO.getName())));
+    }
+}
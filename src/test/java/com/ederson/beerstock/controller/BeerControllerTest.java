@@ -1,11 +1,56 @@
 package com.ederson.beerstock.controller;
 
 import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerBatchDTO;
 import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.dto.BeerImportErrorDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.dto.BeerChangeDTO;
+import com.ederson.beerstock.dto.BeerChangePageDTO;
+import com.ederson.beerstock.dto.InventoryAggregateDTO;
+import com.ederson.beerstock.dto.InventoryAggregatesDTO;
 import com.ederson.beerstock.dto.QuantityDTO;
+import com.ederson.beerstock.dto.StockLedgerEntryDTO;
+import com.ederson.beerstock.dto.StockLedgerPageDTO;
+import com.ederson.beerstock.dto.StockMovementBatchDTO;
+import com.ederson.beerstock.dto.StockMovementDTO;
+import com.ederson.beerstock.dto.StockMovementResultDTO;
+import com.ederson.beerstock.dto.StockQuantityDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.dto.StockReservationRequestDTO;
+import com.ederson.beerstock.dto.StockTransferDTO;
+import com.ederson.beerstock.enums.BeerChangeType;
+import com.ederson.beerstock.enums.BeerFileFormat;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.enums.ReservationStatus;
+import com.ederson.beerstock.enums.StockMovementKind;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.enums.StockMovementStatus;
 import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.ChangeFeedExpiredException;
+import com.ederson.beerstock.exception.LocationNotFoundException;
+import com.ederson.beerstock.exception.ReservationNotHeldException;
+import com.ederson.beerstock.service.BeerFileService;
 import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.service.BeerSuggestService;
+import com.ederson.beerstock.service.CatalogVersion;
+import com.ederson.beerstock.service.ChangeFeedService;
+import com.ederson.beerstock.service.InventoryAggregateService;
+import com.ederson.beerstock.service.LocationStockService;
+import com.ederson.beerstock.service.StockAlertService;
+import com.ederson.beerstock.service.StockLedgerService;
+import com.ederson.beerstock.service.StockReservationService;
 import com.ederson.beerstock.utils.JsonConvertionUtils;
+import com.ederson.beerstock.writebehind.StockWriteBehindService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.Is;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,22 +58,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @ExtendWith({MockitoExtension.class})
 public class BeerControllerTest {
-    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final String BEER_API_URL_PATH = "/api/beers";
     private static final long VALID_BEER_ID = 1L;
     private static final long INVALID_BEER_ID = 2L;
     private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
@@ -36,6 +91,28 @@ public class BeerControllerTest {
     private MockMvc mockMvc;
     @Mock
     private BeerService beerService;
+    @Mock
+    private BeerFileService beerFileService;
+    @Mock
+    private BeerSuggestService beerSuggestService;
+    @Mock
+    private ChangeFeedService changeFeedService;
+    @Mock
+    private StockAlertService stockAlertService;
+    @Mock
+    private StockLedgerService stockLedgerService;
+    @Mock
+    private StockWriteBehindService stockWriteBehindService;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private InventoryAggregateService inventoryAggregateService;
+    @Mock
+    private LocationStockService locationStockService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(Optional.empty());
     @InjectMocks
     private BeerController beerController;
 
@@ -53,55 +130,169 @@ public class BeerControllerTest {
     void whenPOSTIsCalledThenABeerIsCreated() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Mockito.when(this.beerService.createBeer(beerDTO)).thenReturn(beerDTO);
-        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString())));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(beerDTO))).andExpect(MockMvcResultMatchers.status().isCreated()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString())));
     }
 
     @Test
     void whenPOSTIsCalledWithoutRequiredFieldThenAnErrorIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         beerDTO.setBrand((String)null);
-        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(beerDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(beerDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenPOSTBulkIsCalledThenTheImportResultIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerBatchDTO batchDTO = new BeerBatchDTO(Collections.singletonList(beerDTO));
+        Mockito.when(this.beerService.createBeers(batchDTO.getBeers())).thenReturn(new BeerImportResultDTO(1, Collections.emptyList()));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/bulk", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(batchDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.created", Is.is(1)));
+    }
+
+    @Test
+    void whenPOSTBulkIsCalledWithAnInvalidBeerThenAnErrorIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand((String)null);
+        BeerBatchDTO batchDTO = new BeerBatchDTO(Collections.singletonList(beerDTO));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/bulk", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(batchDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
 
     @Test
     void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Mockito.when(this.beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
-        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/beers/" + beerDTO.getName(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString())));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/" + beerDTO.getName(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString())));
     }
 
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Mockito.when(this.beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
-        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/beers/" + beerDTO.getName(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNotFound());
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/" + beerDTO.getName(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
     @Test
     void whenGETListWithBeersIsCalledThenOkStatusIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Mockito.when(this.beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
-        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].type", Is.is(beerDTO.getType().toString())));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].type", Is.is(beerDTO.getType().toString())));
     }
 
     @Test
     void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Mockito.when(this.beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
-        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk());
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void whenGETListIsCalledWithCurrentETagThenNotModifiedStatusIsReturnedWithoutQueryingBeers() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0]).header("If-None-Match", new Object[]{this.catalogETag("json")})).andExpect(MockMvcResultMatchers.status().isNotModified()).andExpect(MockMvcResultMatchers.content().string(""));
+        ((BeerService)Mockito.verify(this.beerService, Mockito.never())).listAll();
+    }
+
+    @Test
+    void whenGETListIsServedByAReplicaThenItIsTaggedByItsContent() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Mockito.doReturn(true).when(this.catalogVersion).isReplicaRead();
+        Mockito.when(this.beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+        String contentETag = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0])).andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse().getHeader("ETag");
+        MatcherAssert.assertThat(contentETag, Matchers.is(Matchers.not(Matchers.equalTo(this.catalogETag("json")))));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0]).header("If-None-Match", new Object[]{contentETag})).andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
+    @Test
+    void whenGETIsNegotiatedToAnotherMediaTypeThenItCarriesItsOwnETagAndVariesByAccept() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Mockito.when(this.beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/" + beerDTO.getName(), new Object[0]).accept(new MediaType[]{MediaType.APPLICATION_CBOR}).header("If-None-Match", new Object[]{this.catalogETag("json")})).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)).andExpect(MockMvcResultMatchers.header().string("ETag", this.catalogETag("cbor"))).andExpect(MockMvcResultMatchers.header().string("Vary", HttpHeaders.ACCEPT));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/" + beerDTO.getName(), new Object[0]).accept(new MediaType[]{MediaType.APPLICATION_CBOR}).header("If-None-Match", new Object[]{this.catalogETag("cbor")})).andExpect(MockMvcResultMatchers.status().isNotModified()).andExpect(MockMvcResultMatchers.header().string("Vary", HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void whenGETIsCalledAfterTheCatalogChangedThenBeerIsReturnedWithTheNewETag() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        String staleETag = this.catalogETag("json");
+        this.catalogVersion.onBeerChanged(new BeerChangedEvent(null, beerDTO));
+        Mockito.when(this.beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/" + beerDTO.getName(), new Object[0]).header("If-None-Match", new Object[]{staleETag})).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.header().string("ETag", this.catalogETag("json"))).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName())));
+    }
+
+    @Test
+    void whenGETPageIsCalledThenOkStatusAndNextCursorAreReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Mockito.when(this.beerService.listPage(null, 1)).thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), beerDTO.getId()));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers", new Object[0]).param("limit", "1").contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.beers[0].name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.next", Is.is(beerDTO.getId().intValue())));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenFiltersAreBoundAndMatchingBeersAreReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).quantity(5).build().toBeerDTO();
+        BeerSearchDTO beerSearchDTO = BeerSearchDTO.builder().brand(beerDTO.getBrand()).type(BeerType.IPA).maxQuantity(9).limit(20).build();
+        Mockito.when(this.beerService.search(beerSearchDTO)).thenReturn(new BeerPageDTO(Collections.singletonList(beerDTO), null));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/search", new Object[0]).param("brand", beerDTO.getBrand()).param("type", "IPA").param("maxQuantity", "9").param("limit", "20")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.beers[0].name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.next", Is.is((Object)null)));
+    }
+
+    @Test
+    void whenGETAggregatesIsCalledThenTotalsPerBrandAndTypeAreReturned() throws Exception {
+        InventoryAggregatesDTO aggregatesDTO = new InventoryAggregatesDTO(Collections.singletonList(new InventoryAggregateDTO("Ambev", 2L, 30L, 100L)), Collections.singletonList(new InventoryAggregateDTO("LAGER", 2L, 30L, 100L)));
+        Mockito.when(this.inventoryAggregateService.aggregates()).thenReturn(aggregatesDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/aggregates", new Object[0])).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.byBrand[0].name", Is.is("Ambev"))).andExpect(MockMvcResultMatchers.jsonPath("$.byBrand[0].quantity", Is.is(30))).andExpect(MockMvcResultMatchers.jsonPath("$.byType[0].capacity", Is.is(100)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledWithInvalidFillRatioThenBadRequestStatusIsReturned() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/search", new Object[0]).param("minFillRatio", "1.5")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenGETStreamIsCalledThenAllBeersAreWrittenAsJsonArray() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ((BeerService)Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<BeerDTO>>getArgument(0).accept(beerDTO);
+            return null;
+        }).when(this.beerService)).streamAll(Mockito.any());
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/stream", new Object[0])).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+        this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].type", Is.is(beerDTO.getType().toString())));
+    }
+
+    @Test
+    void whenGETAlertsIsCalledThenAnEventStreamIsOpened() throws Exception {
+        Mockito.when(this.stockAlertService.subscribe()).thenReturn(new SseEmitter());
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/alerts", new Object[0]).accept(new MediaType[]{MediaType.TEXT_EVENT_STREAM})).andExpect(MockMvcResultMatchers.request().asyncStarted());
+    }
+
+    @Test
+    void whenGETMovementsIsCalledThenLedgerPageIsReturned() throws Exception {
+        StockLedgerEntryDTO stockLedgerEntryDTO = new StockLedgerEntryDTO(10L, 1L, StockMovementKind.INCREMENT, 5, Instant.parse("2021-01-01T10:00:00Z"));
+        Mockito.when(this.stockLedgerService.listMovements(1L, 9L, 1)).thenReturn(new StockLedgerPageDTO(Collections.singletonList(stockLedgerEntryDTO), 10L));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/1/movements", new Object[0]).param("after", "9").param("limit", "1")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.movements[0].kind", Is.is("INCREMENT"))).andExpect(MockMvcResultMatchers.jsonPath("$.next", Is.is(10)));
+    }
+
+    @Test
+    void whenGETQuantityIsCalledWithAnInstantThenQuantityAsOfThatInstantIsReturned() throws Exception {
+        Instant asOf = Instant.parse("2021-01-01T10:00:00Z");
+        Mockito.when(this.stockLedgerService.quantityAt(1L, asOf)).thenReturn(new StockQuantityDTO(1L, 15, asOf));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/1/quantity", new Object[0]).param("at", "2021-01-01T10:00:00Z")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.quantity", Is.is(15)));
+    }
+
+    @Test
+    void whenPUTIsCalledThenUpdatedBeerIsReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().brand("Heineken").build().toBeerDTO();
+        Mockito.when(this.beerService.updateBeer(beerDTO.getId(), beerDTO)).thenReturn(beerDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.put("/api/beers/" + beerDTO.getId(), new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(beerDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is("Heineken")));
     }
 
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         ((BeerService)Mockito.doNothing().when(this.beerService)).deleteById(beerDTO.getId());
-        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/beers/" + beerDTO.getId(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNoContent());
+        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/beers/" + beerDTO.getId(), new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNoContent());
     }
 
     @Test
     void whenDELETEIsCalledWithInvalidIdThenNotFoundStatusIsReturned() throws Exception {
         ((BeerService)Mockito.doThrow(BeerNotFoundException.class).when(this.beerService)).deleteById(2L);
-        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/beers/2", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNotFound());
+        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/beers/2", new Object[0]).contentType(MediaType.APPLICATION_JSON)).andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
     @Test
@@ -110,6 +301,131 @@ public class BeerControllerTest {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         beerDTO.setQuantity(beerDTO.getQuantity() + quantityDTO.getQuantity());
         Mockito.when(this.beerService.increment(1L, quantityDTO.getQuantity())).thenReturn(beerDTO);
-        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/v1/beers/1/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString()))).andExpect(MockMvcResultMatchers.jsonPath("$.quantity", Is.is(beerDTO.getQuantity())));
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.brand", Is.is(beerDTO.getBrand()))).andExpect(MockMvcResultMatchers.jsonPath("$.type", Is.is(beerDTO.getType().toString()))).andExpect(MockMvcResultMatchers.jsonPath("$.quantity", Is.is(beerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementWithWriteBehindEnabledThenIncrementIsAcknowledgedFromMemory() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setQuantity(beerDTO.getQuantity() + quantityDTO.getQuantity());
+        Mockito.when(this.stockWriteBehindService.isEnabled()).thenReturn(true);
+        Mockito.when(this.stockWriteBehindService.increment(1L, quantityDTO.getQuantity())).thenReturn(beerDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.quantity", Is.is(beerDTO.getQuantity())));
+        ((BeerService)Mockito.verify(this.beerService, Mockito.never())).increment(1L, quantityDTO.getQuantity());
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementDiscountThenOKstatusIsReturned() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(5).build();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setQuantity(beerDTO.getQuantity() - quantityDTO.getQuantity());
+        Mockito.when(this.beerService.decrement(1L, quantityDTO.getQuantity())).thenReturn(beerDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/decrement", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.quantity", Is.is(beerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementBelowZeroThenBadRequestStatusIsReturned() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(60).build();
+        Mockito.when(this.beerService.decrement(1L, quantityDTO.getQuantity())).thenThrow(BeerStockInsufficientException.class);
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/decrement", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenPATCHIsCalledWithNonPositiveQuantityThenBadRequestStatusIsReturned() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(-5).build();
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/decrement", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/locations/SP/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(QuantityDTO.builder().quantity(0).build()))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verifyNoInteractions(new Object[]{this.beerService, this.locationStockService});
+    }
+
+    @Test
+    void whenPOSTStockMovementsIsCalledThenTheResultOfEachMovementIsReturned() throws Exception {
+        StockMovementBatchDTO batchDTO = new StockMovementBatchDTO(Arrays.asList(new StockMovementDTO(1L, 10), new StockMovementDTO(2L, 5)));
+        Mockito.when(this.beerService.applyMovements(batchDTO.getMovements())).thenReturn(Arrays.asList(new StockMovementResultDTO(1L, 10, StockMovementStatus.APPLIED, 20), new StockMovementResultDTO(2L, 5, StockMovementStatus.NOT_FOUND, null)));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/stock-movements", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(batchDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].status", Is.is(StockMovementStatus.APPLIED.toString()))).andExpect(MockMvcResultMatchers.jsonPath("$[0].quantity", Is.is(20))).andExpect(MockMvcResultMatchers.jsonPath("$[1].status", Is.is(StockMovementStatus.NOT_FOUND.toString())));
+    }
+
+    @Test
+    void whenPOSTStockMovementsIsCalledWithoutMovementsThenAnErrorIsReturned() throws Exception {
+        StockMovementBatchDTO batchDTO = new StockMovementBatchDTO(Collections.emptyList());
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/stock-movements", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(batchDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenPOSTReservationIsCalledThenHeldReservationIsCreated() throws Exception {
+        StockReservationRequestDTO requestDTO = StockReservationRequestDTO.builder().quantity(5).build();
+        StockReservationDTO reservationDTO = StockReservationDTO.builder().id(10L).beerId(1L).quantity(5).status(ReservationStatus.HELD).build();
+        Mockito.when(this.stockReservationService.reserve(1L, 5, null)).thenReturn(reservationDTO);
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/1/reservations", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(requestDTO))).andExpect(MockMvcResultMatchers.status().isCreated()).andExpect(MockMvcResultMatchers.jsonPath("$.id", Is.is(10))).andExpect(MockMvcResultMatchers.jsonPath("$.status", Is.is(ReservationStatus.HELD.toString())));
+    }
+
+    @Test
+    void whenPOSTCommitIsCalledOnReleasedReservationThenConflictStatusIsReturned() throws Exception {
+        Mockito.when(this.stockReservationService.commit(10L)).thenThrow(ReservationNotHeldException.class);
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/reservations/10/commit", new Object[0])).andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    @Test
+    void whenPOSTTransferIsCalledThenSourceAndTargetStockAreReturned() throws Exception {
+        StockTransferDTO transferDTO = StockTransferDTO.builder().from("SP").to("RJ").quantity(5).build();
+        Mockito.when(this.locationStockService.transfer(1L, transferDTO)).thenReturn(Arrays.asList(new BeerStockDTO("SP", 50, 15), new BeerStockDTO("RJ", 50, 5)));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/1/transfers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(transferDTO))).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].quantity", Is.is(15))).andExpect(MockMvcResultMatchers.jsonPath("$[1].location", Is.is("RJ")));
+    }
+
+    @Test
+    void whenPOSTTransferIsCalledWithSameLocationThenBadRequestStatusIsReturned() throws Exception {
+        StockTransferDTO transferDTO = StockTransferDTO.builder().from("SP").to("SP").quantity(5).build();
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/1/transfers", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(transferDTO))).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void whenPATCHLocationIncrementIsCalledOnUnknownLocationThenNotFoundStatusIsReturned() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+        Mockito.when(this.locationStockService.increment(1L, "SP", 10)).thenThrow(LocationNotFoundException.class);
+        this.mockMvc.perform(MockMvcRequestBuilders.patch("/api/beers/1/locations/SP/increment", new Object[0]).contentType(MediaType.APPLICATION_JSON).content(JsonConvertionUtils.asJsonString(quantityDTO))).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    void whenGETSuggestIsCalledThenMatchingBeersAreReturned() throws Exception {
+        Mockito.when(this.beerSuggestService.suggest("bra", 10)).thenReturn(Collections.singletonList(new BeerSuggestionDTO(1L, "Brahma", "Ambev")));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/suggest", new Object[0]).param("q", "bra")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$[0].name", Is.is("Brahma"))).andExpect(MockMvcResultMatchers.jsonPath("$[0].brand", Is.is("Ambev")));
+    }
+
+    @Test
+    void whenGETChangesIsCalledThenChangesAfterTheSequenceAreReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerChangePageDTO page = new BeerChangePageDTO(Arrays.asList(new BeerChangeDTO(4L, BeerChangeType.UPSERT, beerDTO.getId(), beerDTO), new BeerChangeDTO(5L, BeerChangeType.DELETE, 2L, null)), 5L);
+        Mockito.when(this.changeFeedService.listChanges(3L, 100)).thenReturn(page);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/changes", new Object[0]).param("since", "3")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].type", Is.is("UPSERT"))).andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].beer.name", Is.is(beerDTO.getName()))).andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].type", Is.is("DELETE"))).andExpect(MockMvcResultMatchers.jsonPath("$.next", Is.is(5)));
+    }
+
+    @Test
+    void whenGETChangesIsCalledWithTruncatedSequenceThenGoneStatusIsReturned() throws Exception {
+        Mockito.when(this.changeFeedService.listChanges(1L, 100)).thenThrow(ChangeFeedExpiredException.class);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/changes", new Object[0]).param("since", "1")).andExpect(MockMvcResultMatchers.status().isGone());
+    }
+
+    @Test
+    void whenGETStreamIsCalledWithCsvAcceptThenBeersAreExportedAsCsv() throws Exception {
+        ((BeerFileService)Mockito.doAnswer(invocation -> {
+            ((OutputStream)invocation.getArgument(1)).write("id,name\n1,Brahma\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(this.beerFileService)).exportBeers(Mockito.eq(BeerFileFormat.CSV), Mockito.any());
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/beers/stream", new Object[0]).accept(new String[]{BeerController.TEXT_CSV_VALUE})).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+        this.mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().contentType(BeerController.TEXT_CSV_VALUE)).andExpect(MockMvcResultMatchers.content().string("id,name\n1,Brahma\n"));
+    }
+
+    @Test
+    void whenPOSTImportIsCalledWithNdjsonThenTheImportReportIsReturned() throws Exception {
+        BeerFileImportResultDTO importResult = new BeerFileImportResultDTO(1L, 0L, 0L, 1L, Collections.singletonList(new BeerImportErrorDTO(2L, "max: must be less than or equal to 500")));
+        Mockito.when(this.beerFileService.importBeers(Mockito.eq(BeerFileFormat.NDJSON), Mockito.any())).thenReturn(importResult);
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/beers/import", new Object[0]).contentType(BeerController.APPLICATION_NDJSON_VALUE).content("{}\n{}\n")).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.created", Is.is(1))).andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line", Is.is(2)));
+    }
+
+    private String catalogETag(String subtype) {
+        String version = this.catalogVersion.etag();
+        return version.substring(0, version.length() - 1) + "-" + subtype + "\"";
     }
 }
@@ -0,0 +1,98 @@
+package com.ederson.beerstock.metrics;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.config.StockThresholds;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith({MockitoExtension.class})
+public class StockMetricsTest {
+    @Mock
+    private BeerRepository beerRepository;
+    @Mock
+    private StockSummary stockSummary;
+    private MeterRegistry meterRegistry;
+    private StockMetrics stockMetrics;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.stockMetrics = new StockMetrics(this.beerRepository, new StockThresholds(), this.meterRegistry);
+    }
+
+    @Test
+    void whenApplicationIsReadyThenGaugesAreLoadedFromTheDatabase() {
+        Mockito.when(this.stockSummary.getBeers()).thenReturn(3L);
+        Mockito.when(this.stockSummary.getUnits()).thenReturn(120L);
+        Mockito.when(this.stockSummary.getEmpty()).thenReturn(1L);
+        Mockito.when(this.stockSummary.getNearMax()).thenReturn(2L);
+        Mockito.when(this.beerRepository.summarizeStock(0.9)).thenReturn(this.stockSummary);
+        this.stockMetrics.initialize();
+        MatcherAssert.assertThat(this.meterRegistry.get("beerstock.stock.units").gauge().value(), Matchers.is(Matchers.equalTo(120.0)));
+        MatcherAssert.assertThat(this.meterRegistry.get("beerstock.stock.beers").tag("level", "all").gauge().value(), Matchers.is(Matchers.equalTo(3.0)));
+        MatcherAssert.assertThat(this.meterRegistry.get("beerstock.stock.beers").tag("level", "empty").gauge().value(), Matchers.is(Matchers.equalTo(1.0)));
+        MatcherAssert.assertThat(this.meterRegistry.get("beerstock.stock.beers").tag("level", "near_max").gauge().value(), Matchers.is(Matchers.equalTo(2.0)));
+    }
+
+    @Test
+    void whenStockChangesThenGaugesFollowWithoutQueryingTheDatabase() {
+        BeerDTO createdBeerDTO = BeerDTOBuilder.builder().quantity(0).build().toBeerDTO();
+        this.stockMetrics.onBeerChanged(new BeerChangedEvent(null, createdBeerDTO));
+        MatcherAssert.assertThat(this.stockMetrics.getEmptyBeers(), Matchers.is(Matchers.equalTo(1L)));
+        BeerDTO incrementedBeerDTO = BeerDTOBuilder.builder().quantity(48).build().toBeerDTO();
+        this.stockMetrics.onBeerChanged(new BeerChangedEvent(createdBeerDTO, incrementedBeerDTO));
+        MatcherAssert.assertThat(this.stockMetrics.getUnits(), Matchers.is(Matchers.equalTo(48L)));
+        MatcherAssert.assertThat(this.stockMetrics.getEmptyBeers(), Matchers.is(Matchers.equalTo(0L)));
+        MatcherAssert.assertThat(this.stockMetrics.getNearMaxBeers(), Matchers.is(Matchers.equalTo(1L)));
+        this.stockMetrics.onBeerChanged(new BeerChangedEvent(incrementedBeerDTO, null));
+        MatcherAssert.assertThat(this.stockMetrics.getUnits(), Matchers.is(Matchers.equalTo(0L)));
+        MatcherAssert.assertThat(this.stockMetrics.getNearMaxBeers(), Matchers.is(Matchers.equalTo(0L)));
+        Mockito.verifyNoInteractions(this.beerRepository);
+    }
+
+    @Test
+    void whenStockChangesDuringTheInitialLoadThenTheLoadIsRetried() {
+        BeerDTO createdBeerDTO = BeerDTOBuilder.builder().quantity(10).build().toBeerDTO();
+        Mockito.when(this.stockSummary.getBeers()).thenReturn(1L);
+        Mockito.when(this.stockSummary.getUnits()).thenReturn(10L);
+        Mockito.when(this.beerRepository.summarizeStock(0.9)).thenAnswer(invocation -> {
+            this.stockMetrics.onBeerChanged(new BeerChangedEvent(null, createdBeerDTO));
+            return this.stockSummary;
+        }).thenReturn(this.stockSummary);
+        this.stockMetrics.initialize();
+        MatcherAssert.assertThat(this.stockMetrics.getUnits(), Matchers.is(Matchers.equalTo(10L)));
+        MatcherAssert.assertThat(this.meterRegistry.get("beerstock.stock.beers").tag("level", "all").gauge().value(), Matchers.is(Matchers.equalTo(1.0)));
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(2))).summarizeStock(0.9);
+    }
+
+    @Test
+    void whenStockKeepsChangingDuringTheInitialLoadThenReconciliationLoadsTheGauges() {
+        Mockito.when(this.stockSummary.getBeers()).thenReturn(3L);
+        Mockito.when(this.stockSummary.getUnits()).thenReturn(120L);
+        Mockito.when(this.beerRepository.summarizeStock(0.9)).thenAnswer(invocation -> {
+            this.stockMetrics.onBeerChanged(new BeerChangedEvent(null, BeerDTOBuilder.builder().quantity(10).build().toBeerDTO()));
+            return this.stockSummary;
+        });
+        this.stockMetrics.initialize();
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(3))).summarizeStock(0.9);
+        Mockito.reset(this.beerRepository);
+        Mockito.when(this.beerRepository.summarizeStock(0.9)).thenReturn(this.stockSummary);
+        MatcherAssert.assertThat(this.stockMetrics.reconcile(), Matchers.is(Matchers.equalTo(false)));
+        MatcherAssert.assertThat(this.stockMetrics.getUnits(), Matchers.is(Matchers.equalTo(30L)));
+        MatcherAssert.assertThat(this.stockMetrics.reconcile(), Matchers.is(Matchers.equalTo(true)));
+        MatcherAssert.assertThat(this.stockMetrics.getUnits(), Matchers.is(Matchers.equalTo(120L)));
+        MatcherAssert.assertThat(this.meterRegistry.get(StockMetrics.DRIFT_COUNTER).counter().count(), Matchers.is(Matchers.equalTo(1.0)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.ederson.beerstock.ratelimit;
+
+import com.ederson.beerstock.config.ConcurrencyLimitProperties;
+import com.ederson.beerstock.config.RateLimitProperties;
+import com.ederson.beerstock.exception.RateLimitExceededException;
+import com.ederson.beerstock.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Collections;
+
+public class LoadSheddingAspectTest {
+    private RateLimitProperties rateLimitProperties;
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+    private MeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        this.rateLimitProperties = new RateLimitProperties();
+        this.rateLimitProperties.setRate(1);
+        this.rateLimitProperties.setBurst(2);
+        this.concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.request = new MockHttpServletRequest();
+        this.response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request, this.response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void whenClientExceedsItsBurstThenTooManyRequestsIsThrownWithRetryAfter() {
+        LimitedOperation proxy = this.proxy(new LimitedOperation()).proxy;
+        proxy.increment();
+        proxy.increment();
+        Assertions.assertThrows(RateLimitExceededException.class, () -> {
+            proxy.increment();
+        });
+        MatcherAssert.assertThat(this.response.getHeader(HttpHeaders.RETRY_AFTER), Matchers.is(Matchers.equalTo("1")));
+        MatcherAssert.assertThat(this.meterRegistry.get(LimiterRegistry.REJECTED_COUNTER).tag("endpoint", "increment").tag("reason", "rate").functionCounter().count(), Matchers.is(Matchers.equalTo(1.0)));
+    }
+
+    @Test
+    void whenAnotherClientCallsThenItHasItsOwnBucket() {
+        this.rateLimitProperties.setTrustedProxies(Collections.singletonList(this.request.getRemoteAddr()));
+        LimitedOperation proxy = this.proxy(new LimitedOperation()).proxy;
+        this.request.addHeader("X-Client-Id", "erp");
+        proxy.increment();
+        proxy.increment();
+        this.request.removeHeader("X-Client-Id");
+        this.request.addHeader("X-Client-Id", "pos");
+        MatcherAssert.assertThat(proxy.increment(), Matchers.is(Matchers.equalTo(3)));
+    }
+
+    @Test
+    void whenUntrustedCallerRotatesClientIdsThenItKeepsItsOwnBucket() {
+        LimitedOperation proxy = this.proxy(new LimitedOperation()).proxy;
+        this.request.addHeader("X-Client-Id", "erp");
+        proxy.increment();
+        proxy.increment();
+        this.request.removeHeader("X-Client-Id");
+        this.request.addHeader("X-Client-Id", "pos");
+        Assertions.assertThrows(RateLimitExceededException.class, () -> {
+            proxy.increment();
+        });
+    }
+
+    @Test
+    void whenLatencyExceedsTargetThenConcurrencyLimitBacksOff() {
+        this.rateLimitProperties.setEnabled(false);
+        this.concurrencyLimitProperties.setInitialLimit(10);
+        this.concurrencyLimitProperties.setLatencyTarget(Duration.ZERO);
+        this.concurrencyLimitProperties.setBackoffRatio(0.5);
+        LimitedOperation operation = this.proxy(new LimitedOperation());
+        operation.proxy.increment();
+        MatcherAssert.assertThat(operation.limiterRegistry.concurrencyLimiter().getLimit(), Matchers.is(Matchers.equalTo(5.0)));
+        MatcherAssert.assertThat(operation.limiterRegistry.concurrencyLimiter().getInFlight(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenConcurrencyLimitIsReachedThenServiceOverloadedIsThrown() {
+        this.rateLimitProperties.setEnabled(false);
+        this.concurrencyLimitProperties.setInitialLimit(1);
+        this.concurrencyLimitProperties.setMinLimit(1);
+        LimitedOperation operation = this.proxy(new LimitedOperation());
+        Assertions.assertThrows(ServiceOverloadedException.class, () -> {
+            operation.proxy.incrementTwiceConcurrently();
+        });
+        MatcherAssert.assertThat(this.response.getHeader(HttpHeaders.RETRY_AFTER), Matchers.is(Matchers.equalTo("1")));
+        MatcherAssert.assertThat(operation.limiterRegistry.concurrencyLimiter().getInFlight(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    private LimitedOperation proxy(LimitedOperation operation) {
+        operation.limiterRegistry = new LimiterRegistry(this.rateLimitProperties, this.concurrencyLimitProperties, this.meterRegistry);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(operation);
+        proxyFactory.addAspect(new LoadSheddingAspect(this.rateLimitProperties, this.concurrencyLimitProperties, operation.limiterRegistry));
+        operation.proxy = proxyFactory.getProxy();
+        return operation;
+    }
+
+    public static class LimitedOperation {
+        private LimiterRegistry limiterRegistry;
+        private LimitedOperation proxy;
+        private int calls;
+
+        @RateLimited("increment")
+        public int increment() {
+            return ++this.calls;
+        }
+
+        @RateLimited("increment")
+        public int incrementTwiceConcurrently() {
+            return this.proxy.increment();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ederson.beerstock.repository;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class BeerSearchRepositoryTest {
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.beerRepository.saveAll(Arrays.asList(
+                new Beer(null, "Hoppy One", "Colorado", 100, 5, BeerType.IPA, null),
+                new Beer(null, "Hoppy Two", "Colorado", 100, 95, BeerType.IPA, null),
+                new Beer(null, "Dark One", "Colorado", 100, 5, BeerType.STOUT, null),
+                new Beer(null, "Hoppy Three", "Baden Baden", 100, 5, BeerType.IPA, null),
+                new Beer(null, "Empty Keg", "Colorado", 0, 0, BeerType.IPA, null)));
+    }
+
+    @Test
+    void whenBrandTypeAndQuantityAreInformedThenOnlyMatchingBeersAreReturned() {
+        BeerSearchDTO filter = BeerSearchDTO.builder().brand("Colorado").type(BeerType.IPA).maxQuantity(9).build();
+        MatcherAssert.assertThat(this.names(this.beerRepository.search(filter, 10)), Matchers.contains("Hoppy One", "Empty Keg"));
+    }
+
+    @Test
+    void whenFillRatioIsInformedThenBeersWithoutMaxAreIgnored() {
+        BeerSearchDTO filter = BeerSearchDTO.builder().minFillRatio(0.9).build();
+        MatcherAssert.assertThat(this.names(this.beerRepository.search(filter, 10)), Matchers.contains("Hoppy Two"));
+        filter = BeerSearchDTO.builder().maxFillRatio(0.1).build();
+        MatcherAssert.assertThat(this.names(this.beerRepository.search(filter, 10)), Matchers.contains("Hoppy One", "Dark One", "Hoppy Three"));
+    }
+
+    @Test
+    void whenCursorIsInformedThenSearchContinuesAfterIt() {
+        BeerSearchDTO filter = BeerSearchDTO.builder().type(BeerType.IPA).build();
+        List<BeerDTO> firstPage = this.beerRepository.search(filter, 2);
+        filter.setAfter(firstPage.get(1).getId());
+        MatcherAssert.assertThat(this.names(firstPage), Matchers.contains("Hoppy One", "Hoppy Two"));
+        MatcherAssert.assertThat(this.names(this.beerRepository.search(filter, 2)), Matchers.contains("Hoppy Three", "Empty Keg"));
+    }
+
+    @Test
+    void whenInventoryIsAggregatedThenTotalsAreGroupedByBrandAndType() {
+        Map<String, InventoryGroup> byBrand = this.beerRepository.aggregateByBrand().stream().collect(Collectors.toMap(InventoryGroup::getName, group -> group));
+        Map<String, InventoryGroup> byType = this.beerRepository.aggregateByType().stream().collect(Collectors.toMap(InventoryGroup::getName, group -> group));
+        MatcherAssert.assertThat(byBrand.get("Colorado").getBeers(), Matchers.is(Matchers.equalTo(4L)));
+        MatcherAssert.assertThat(byBrand.get("Colorado").getQuantity(), Matchers.is(Matchers.equalTo(105L)));
+        MatcherAssert.assertThat(byBrand.get("Baden Baden").getCapacity(), Matchers.is(Matchers.equalTo(100L)));
+        MatcherAssert.assertThat(byType.get(BeerType.IPA.name()).getBeers(), Matchers.is(Matchers.equalTo(4L)));
+        MatcherAssert.assertThat(byType.get(BeerType.IPA.name()).getCapacity(), Matchers.is(Matchers.equalTo(300L)));
+        MatcherAssert.assertThat(byType.get(BeerType.STOUT.name()).getQuantity(), Matchers.is(Matchers.equalTo(5L)));
+    }
+
+    private List<String> names(List<BeerDTO> beers) {
+        return beers.stream().map(BeerDTO::getName).collect(Collectors.toList());
+    }
+}
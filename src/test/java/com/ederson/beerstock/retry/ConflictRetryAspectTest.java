@@ -0,0 +1,65 @@
+package com.ederson.beerstock.retry;
+
+import com.ederson.beerstock.config.RetryProperties;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.exception.BeerConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+public class ConflictRetryAspectTest {
+    private MeterRegistry meterRegistry;
+    private ConflictingOperation conflictingOperation;
+    private ConflictingOperation proxy;
+
+    @BeforeEach
+    void setUp() {
+        RetryProperties retryProperties = new RetryProperties();
+        retryProperties.setMaxAttempts(3);
+        retryProperties.setInitialBackoff(Duration.ZERO);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.conflictingOperation = new ConflictingOperation();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(this.conflictingOperation);
+        proxyFactory.addAspect(new ConflictRetryAspect(retryProperties, this.meterRegistry));
+        this.proxy = proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenConflictIsTransientThenOperationIsRetriedUntilItSucceeds() {
+        this.conflictingOperation.remainingConflicts = 2;
+        MatcherAssert.assertThat(this.proxy.update(), Matchers.is(Matchers.equalTo(3)));
+        MatcherAssert.assertThat(this.meterRegistry.get(ConflictRetryAspect.CONFLICTS_COUNTER).tag("outcome", "retried").counter().count(), Matchers.is(Matchers.equalTo(2.0)));
+    }
+
+    @Test
+    void whenConflictPersistsThenConcurrentUpdateExceptionIsThrownAfterMaxAttempts() {
+        this.conflictingOperation.remainingConflicts = Integer.MAX_VALUE;
+        Assertions.assertThrows(BeerConcurrentUpdateException.class, () -> {
+            this.proxy.update();
+        });
+        MatcherAssert.assertThat(this.conflictingOperation.attempts, Matchers.is(Matchers.equalTo(3)));
+        MatcherAssert.assertThat(this.meterRegistry.get(ConflictRetryAspect.CONFLICTS_COUNTER).tag("outcome", "exhausted").counter().count(), Matchers.is(Matchers.equalTo(1.0)));
+    }
+
+    public static class ConflictingOperation {
+        private int remainingConflicts;
+        private int attempts;
+
+        @RetryOnConflict
+        public int update() {
+            this.attempts++;
+            if (this.remainingConflicts-- > 0) {
+                throw new ObjectOptimisticLockingFailureException(Beer.class, 1L);
+            }
+            return this.attempts;
+        }
+    }
+}
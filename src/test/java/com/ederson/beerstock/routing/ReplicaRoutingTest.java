@@ -0,0 +1,116 @@
+package com.ederson.beerstock.routing;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.service.BeerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "beerstock.routing.enabled=true",
+        "beerstock.routing.stickiness=PT0.5S",
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "beerstock.routing.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL
+})
+public class ReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        this.replicate();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        RequestContextHolder.resetRequestAttributes();
+        this.beerRepository.deleteAll();
+        this.replicate();
+    }
+
+    @Test
+    void whenAnotherClientReadsBeforeReplicationThenReplicaServesTheRead() throws Exception {
+        this.actAs("erp");
+        this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        this.actAs("pos");
+        MatcherAssert.assertThat(this.streamAll(), Matchers.is(Matchers.empty()));
+        this.replicate();
+        MatcherAssert.assertThat(this.streamAll(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(this.meterRegistry.get("hikaricp.connections.acquire").tag("pool", "replica-1").timer().count(), Matchers.is(Matchers.greaterThan(0L)));
+        MatcherAssert.assertThat(this.meterRegistry.get(ReplicaRoutingDataSource.ROUTES_COUNTER).tag("route", "replica-1").counter().count(), Matchers.is(Matchers.greaterThan(0.0)));
+    }
+
+    @Test
+    void whenClientReadsAfterItsOwnWriteThenPrimaryServesTheReadUntilStickinessExpires() throws Exception {
+        this.actAs("erp");
+        this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        MatcherAssert.assertThat(this.streamAll(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(this.meterRegistry.get(ReplicaRoutingDataSource.ROUTES_COUNTER).tag("reason", "read_your_writes").counter().count(), Matchers.is(Matchers.greaterThan(0.0)));
+        Thread.sleep(600L);
+        MatcherAssert.assertThat(this.streamAll(), Matchers.is(Matchers.empty()));
+    }
+
+    @Test
+    void whenReadFillsTheByNameCacheThenPrimaryServesItWhileListingsStayOnTheReplica() throws Exception {
+        this.actAs("erp");
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        this.actAs("pos");
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()), Matchers.is(Matchers.equalTo(createdBeerDTO)));
+        MatcherAssert.assertThat(this.meterRegistry.get(ReplicaRoutingDataSource.ROUTES_COUNTER).tag("reason", "primary_read").counter().count(), Matchers.is(Matchers.greaterThan(0.0)));
+        MatcherAssert.assertThat(this.beerService.listAll(), Matchers.is(Matchers.empty()));
+        this.replicate();
+        MatcherAssert.assertThat(this.beerService.listAll(), Matchers.hasSize(1));
+    }
+
+    private List<BeerDTO> streamAll() {
+        List<BeerDTO> beers = new ArrayList<>();
+        this.beerService.streamAll(beers::add);
+        return beers;
+    }
+
+    private void actAs(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", ""); Statement statement = primary.createStatement(); ResultSet resultSet = statement.executeQuery("SCRIPT")) {
+            while (resultSet.next()) {
+                script.add(resultSet.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", ""); Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
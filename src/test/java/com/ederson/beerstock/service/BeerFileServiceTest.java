@@ -0,0 +1,114 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerFileImportResultDTO;
+import com.ederson.beerstock.dto.BeerImportErrorDTO;
+import com.ederson.beerstock.enums.BeerFileFormat;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:files;DB_CLOSE_DELAY=-1")
+public class BeerFileServiceTest {
+    private static final int BEERS = 1200;
+
+    @Autowired
+    private BeerFileService beerFileService;
+    @SpyBean
+    private BeerService beerService;
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenCsvIsImportedThenBeersAreUpsertedAcrossChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("name,brand,max,quantity,type\n");
+        for (int i = 0; i < BEERS; i++) {
+            csv.append("Beer ").append(i).append(",Brand,50,10,LAGER\n");
+        }
+        BeerFileImportResultDTO created = this.beerFileService.importBeers(BeerFileFormat.CSV, this.asStream(csv.toString()));
+        MatcherAssert.assertThat(created.getCreated(), Matchers.is(Matchers.equalTo((long) BEERS)));
+        MatcherAssert.assertThat(this.beerRepository.count(), Matchers.is(Matchers.equalTo((long) BEERS)));
+        BeerFileImportResultDTO updated = this.beerFileService.importBeers(BeerFileFormat.CSV, this.asStream("name,brand,max,quantity,type\nBeer 0,Brand,50,10,LAGER\nBeer 1,Other,60,20,IPA\n"));
+        MatcherAssert.assertThat(updated.getUnchanged(), Matchers.is(Matchers.equalTo(1L)));
+        MatcherAssert.assertThat(updated.getUpdated(), Matchers.is(Matchers.equalTo(1L)));
+        BeerDTO beerDTO = this.beerService.findByName("Beer 1");
+        MatcherAssert.assertThat(beerDTO.getBrand(), Matchers.is(Matchers.equalTo("Other")));
+        MatcherAssert.assertThat(beerDTO.getQuantity(), Matchers.is(Matchers.equalTo(20)));
+        MatcherAssert.assertThat(beerDTO.getType(), Matchers.is(Matchers.equalTo(BeerType.IPA)));
+    }
+
+    @Test
+    void whenLinesAreInvalidThenTheyAreReportedAndTheOthersImported() throws Exception {
+        String csv = "name,brand,max,quantity,type\n"
+                + "Valid,Brand,50,10,LAGER\n"
+                + "Too Many,Brand,600,10,LAGER\n"
+                + "Bad Type,Brand,50,10,SODA\n"
+                + "Over Max,Brand,50,60,LAGER\n"
+                + ",Brand,50,10,LAGER\n";
+        BeerFileImportResultDTO result = this.beerFileService.importBeers(BeerFileFormat.CSV, this.asStream(csv));
+        MatcherAssert.assertThat(result.getCreated(), Matchers.is(Matchers.equalTo(1L)));
+        MatcherAssert.assertThat(result.getRejected(), Matchers.is(Matchers.equalTo(4L)));
+        MatcherAssert.assertThat(result.getErrors().stream().map(BeerImportErrorDTO::getLine).toArray(), Matchers.is(Matchers.arrayContaining(3L, 4L, 5L, 6L)));
+        MatcherAssert.assertThat(result.getErrors().get(1).getMessage(), Matchers.startsWith("type"));
+    }
+
+    @Test
+    void whenChunkCannotBeSavedThenItsLinesAreReportedAndTheNextChunksImported() throws Exception {
+        StringBuilder csv = new StringBuilder("name,brand,max,quantity,type\n");
+        for (int i = 0; i < BEERS; i++) {
+            csv.append("Beer ").append(i).append(",Brand,50,10,LAGER\n");
+        }
+        Mockito.doThrow(new DataIntegrityViolationException("chunk refused"))
+                .doCallRealMethod()
+                .when(this.beerService).upsertBeers(Mockito.anyList());
+        BeerFileImportResultDTO result = this.beerFileService.importBeers(BeerFileFormat.CSV, this.asStream(csv.toString()));
+        MatcherAssert.assertThat(result.getRejected(), Matchers.is(Matchers.equalTo(500L)));
+        MatcherAssert.assertThat(result.getCreated(), Matchers.is(Matchers.equalTo((long) BEERS - 500)));
+        MatcherAssert.assertThat(result.getErrors().get(0), Matchers.is(Matchers.equalTo(new BeerImportErrorDTO(2L, "could not be saved"))));
+        MatcherAssert.assertThat(result.getErrors().get(499).getLine(), Matchers.is(Matchers.equalTo(501L)));
+    }
+
+    @Test
+    void whenNdjsonIsImportedThenMalformedLinesAreReported() throws Exception {
+        String ndjson = "{\"name\":\"First\",\"brand\":\"Brand\",\"max\":50,\"quantity\":10,\"type\":\"ALE\"}\n"
+                + "{\"name\":\"Second\",\"brand\":\"Brand\",\"max\":50,\"quantity\":\"many\",\"type\":\"ALE\"}\n"
+                + "{\"name\":\"Third\",\"brand\":\"Brand\",\"max\":50,\"quantity\":5,\"type\":\"ALE\"}\n";
+        BeerFileImportResultDTO result = this.beerFileService.importBeers(BeerFileFormat.NDJSON, this.asStream(ndjson));
+        MatcherAssert.assertThat(result.getCreated(), Matchers.is(Matchers.equalTo(2L)));
+        MatcherAssert.assertThat(result.getErrors(), Matchers.contains(new BeerImportErrorDTO(2L, "quantity: invalid value")));
+    }
+
+    @Test
+    void whenBeersAreExportedThenTheFileCanBeImportedBack() throws Exception {
+        this.beerFileService.importBeers(BeerFileFormat.NDJSON, this.asStream("{\"name\":\"Exported, \\\"quoted\\\"\",\"brand\":\"Brand\",\"max\":50,\"quantity\":10,\"type\":\"STOUT\"}\n"));
+        for (BeerFileFormat format : BeerFileFormat.values()) {
+            ByteArrayOutputStream exported = new ByteArrayOutputStream();
+            this.beerFileService.exportBeers(format, exported);
+            BeerFileImportResultDTO result = this.beerFileService.importBeers(format, new ByteArrayInputStream(exported.toByteArray()));
+            MatcherAssert.assertThat(result.getUnchanged(), Matchers.is(Matchers.equalTo(1L)));
+            MatcherAssert.assertThat(result.getRejected(), Matchers.is(Matchers.equalTo(0L)));
+        }
+    }
+
+    private InputStream asStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
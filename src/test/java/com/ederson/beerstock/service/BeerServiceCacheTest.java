@@ -0,0 +1,62 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.config.CacheConfig;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BeerServiceCacheTest {
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+        this.cacheManager.getCache(CacheConfig.BEERS_BY_NAME).clear();
+    }
+
+    @Test
+    void whenFindByNameIsCalledThenBeerIsServedFromCache() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        this.beerService.findByName(createdBeerDTO.getName());
+        Cache cache = this.cacheManager.getCache(CacheConfig.BEERS_BY_NAME);
+        MatcherAssert.assertThat(cache.get(createdBeerDTO.getName(), BeerDTO.class), Matchers.is(Matchers.equalTo(createdBeerDTO)));
+        this.beerRepository.deleteAll();
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()), Matchers.is(Matchers.equalTo(createdBeerDTO)));
+    }
+
+    @Test
+    void whenStockIsChangedThenCachedBeerIsNotStale() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        this.beerService.findByName(createdBeerDTO.getName());
+        this.beerService.increment(createdBeerDTO.getId(), 10);
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()).getQuantity(), Matchers.is(Matchers.equalTo(createdBeerDTO.getQuantity() + 10)));
+        this.beerService.decrement(createdBeerDTO.getId(), 5);
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()).getQuantity(), Matchers.is(Matchers.equalTo(createdBeerDTO.getQuantity() + 5)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenCachedBeerIsEvicted() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        this.beerService.findByName(createdBeerDTO.getName());
+        this.beerService.deleteById(createdBeerDTO.getId());
+        Assertions.assertThrows(BeerNotFoundException.class, () -> {
+            this.beerService.findByName(createdBeerDTO.getName());
+        });
+    }
+}
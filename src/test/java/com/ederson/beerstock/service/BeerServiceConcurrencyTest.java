@@ -0,0 +1,172 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockMovementDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.exception.BeerConcurrentUpdateException;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+public class BeerServiceConcurrencyTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeerServiceConcurrencyTest.class);
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 500;
+    private static final int BEER_MAX = THREADS * INCREMENTS_PER_THREAD * 2;
+
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenIncrementIsCalledConcurrentlyThenNoUpdateIsLost() throws Exception {
+        Long id = this.createBeer("Concurrent Increment");
+        long elapsed = this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                this.beerService.increment(id, 1);
+            }
+            return null;
+        });
+        int quantity = this.beerRepository.findById(id).get().getQuantity();
+        LOGGER.info("Atomic increment: {} ops/s, quantity {} of {}", this.throughput(elapsed), quantity, THREADS * INCREMENTS_PER_THREAD);
+        MatcherAssert.assertThat(quantity, Matchers.is(Matchers.equalTo(THREADS * INCREMENTS_PER_THREAD)));
+    }
+
+    @Test
+    void whenDecrementIsCalledConcurrentlyThenStockNeverGoesBelowZero() throws Exception {
+        Long id = this.createBeer("Concurrent Decrement");
+        this.beerService.increment(id, THREADS * INCREMENTS_PER_THREAD / 2);
+        this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                try {
+                    this.beerService.decrement(id, 1);
+                } catch (Exception ignored) {
+                }
+            }
+            return null;
+        });
+        MatcherAssert.assertThat(this.beerRepository.findById(id).get().getQuantity(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenComparedWithReadModifyWriteThenAtomicIncrementAppliesEveryUpdate() throws Exception {
+        Long id = this.createBeer("Read Modify Write");
+        AtomicInteger readModifyWriteConflicts = new AtomicInteger();
+        long readModifyWriteElapsed = this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                try {
+                    this.transactionTemplate.executeWithoutResult(status -> {
+                        Beer beer = this.beerRepository.findById(id).get();
+                        beer.setQuantity(beer.getQuantity() + 1);
+                        this.beerRepository.save(beer);
+                    });
+                } catch (ConcurrencyFailureException e) {
+                    readModifyWriteConflicts.incrementAndGet();
+                }
+            }
+            return null;
+        });
+        int readModifyWriteQuantity = this.beerRepository.findById(id).get().getQuantity();
+        Long atomicId = this.createBeer("Atomic");
+        long atomicElapsed = this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                this.beerService.increment(atomicId, 1);
+            }
+            return null;
+        });
+        double readModifyWriteEffective = readModifyWriteQuantity * 1000d / TimeUnit.NANOSECONDS.toMillis(Math.max(readModifyWriteElapsed, 1_000_000L));
+        double atomicEffective = this.beerRepository.findById(atomicId).get().getQuantity() * 1000d / TimeUnit.NANOSECONDS.toMillis(Math.max(atomicElapsed, 1_000_000L));
+        LOGGER.info("Read-modify-write: {} ops/s, {} rejected by version conflicts, {} applied/s", this.throughput(readModifyWriteElapsed), readModifyWriteConflicts.get(), (long) readModifyWriteEffective);
+        LOGGER.info("Atomic increment: {} ops/s, 0 lost updates, {} applied/s", this.throughput(atomicElapsed), (long) atomicEffective);
+        MatcherAssert.assertThat(this.beerRepository.findById(atomicId).get().getQuantity(), Matchers.is(Matchers.equalTo(THREADS * INCREMENTS_PER_THREAD)));
+        MatcherAssert.assertThat(readModifyWriteQuantity + readModifyWriteConflicts.get(), Matchers.is(Matchers.equalTo(THREADS * INCREMENTS_PER_THREAD)));
+    }
+
+    @Test
+    void whenMovementsAndIncrementsRunConcurrentlyThenNoUpdateIsLost() throws Exception {
+        Long id = this.createBeer("Concurrent Movements");
+        this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD / 2; i++) {
+                this.beerService.applyMovements(Arrays.asList(new StockMovementDTO(id, 1), new StockMovementDTO(id, 1)));
+                this.beerService.increment(id, 1);
+            }
+            return null;
+        });
+        MatcherAssert.assertThat(this.beerRepository.findById(id).get().getQuantity(), Matchers.is(Matchers.equalTo(THREADS * (INCREMENTS_PER_THREAD / 2) * 3)));
+    }
+
+    @Test
+    void whenUpdatesAndIncrementsRunConcurrentlyThenNoIncrementIsOverwritten() throws Exception {
+        Long id = this.createBeer("Concurrent Update");
+        this.runConcurrently(() -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD / 10; i++) {
+                BeerDTO beerDTO = BeerDTOBuilder.builder().id(id).name("Concurrent Update").brand("Brand " + i).quantity(0).max(BEER_MAX).build().toBeerDTO();
+                try {
+                    this.beerService.updateBeer(id, beerDTO);
+                } catch (BeerConcurrentUpdateException ignored) {
+                }
+                this.beerService.increment(id, 1);
+            }
+            return null;
+        });
+        MatcherAssert.assertThat(this.beerRepository.findById(id).get().getQuantity(), Matchers.is(Matchers.equalTo(THREADS * (INCREMENTS_PER_THREAD / 10))));
+    }
+
+    private Long createBeer(String name) throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name(name).quantity(0).max(BEER_MAX).build().toBeerDTO();
+        return this.beerService.createBeer(beerDTO).getId();
+    }
+
+    private long runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private long throughput(long elapsedNanos) {
+        return THREADS * INCREMENTS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1L);
+    }
+}
@@ -2,37 +2,68 @@ package com.ederson.beerstock.service;
 
 import com.ederson.beerstock.builder.BeerDTOBuilder;
 import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerImportResultDTO;
+import com.ederson.beerstock.dto.BeerPageDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.StockMovementDTO;
+import com.ederson.beerstock.dto.StockMovementResultDTO;
+import com.ederson.beerstock.enums.StockMovementStatus;
 import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.event.BeerChangedEvent;
 import com.ederson.beerstock.exception.BeerAlreadyRegisteredException;
 import com.ederson.beerstock.exception.BeerNotFoundException;
 import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
 import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.mapper.BeerMapperImpl;
 import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.store.JpaStockStore;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 @ExtendWith({MockitoExtension.class})
 public class BeerServiceTest {
     private static final long INVALID_BEER_ID = 1L;
     @Mock
     private BeerRepository beerRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Spy
     private BeerMapper beerMapper;
-    @InjectMocks
     private BeerService beerService;
 
     public BeerServiceTest() {
-        this.beerMapper = BeerMapper.INSTANCE;
+        this.beerMapper = new BeerMapperImpl();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.beerService = new BeerService(this.beerRepository, this.entityManager, this.eventPublisher, this.stockReservationService, new JpaStockStore(this.beerRepository, this.beerMapper), new BeerNameCache(this.beerRepository, this.beerMapper), this.beerMapper);
     }
 
     @Test
@@ -45,6 +76,7 @@ public class BeerServiceTest {
         MatcherAssert.assertThat(createdBeerDTO.getId(), Matchers.is(Matchers.equalTo(expectedBeerDTO.getId())));
         MatcherAssert.assertThat(createdBeerDTO.getName(), Matchers.is(Matchers.equalTo(expectedBeerDTO.getName())));
         MatcherAssert.assertThat(createdBeerDTO.getQuantity(), Matchers.is(Matchers.equalTo(expectedBeerDTO.getQuantity())));
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(Mockito.any(BeerChangedEvent.class));
     }
 
     @Test
@@ -57,6 +89,20 @@ public class BeerServiceTest {
         });
     }
 
+    @Test
+    void whenBeersAreImportedThenOnlyNewNamesAreCreated() {
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO();
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO duplicatedBeerDTO = BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO();
+        Mockito.when(this.beerRepository.findNamesIn(new HashSet<>(Arrays.asList("Skol", registeredBeerDTO.getName())))).thenReturn(Collections.singleton(registeredBeerDTO.getName()));
+        Mockito.when(this.beerRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        BeerImportResultDTO result = this.beerService.createBeers(Arrays.asList(newBeerDTO, registeredBeerDTO, duplicatedBeerDTO));
+        MatcherAssert.assertThat(result.getCreated(), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(result.getAlreadyRegistered(), Matchers.contains(registeredBeerDTO.getName(), duplicatedBeerDTO.getName()));
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(1))).flush();
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
+
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws BeerNotFoundException {
         BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -92,6 +138,73 @@ public class BeerServiceTest {
         MatcherAssert.assertThat(foundListBeersDTO, Matchers.is(Matchers.empty()));
     }
 
+    @Test
+    void whenUpdateIsCalledThenDetailsChangeAndStockIsKept() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer savedBeer = this.beerMapper.toModel(expectedBeerDTO);
+        BeerDTO updateBeerDTO = BeerDTOBuilder.builder().brand("Heineken").max(80).quantity(0).build().toBeerDTO();
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(savedBeer));
+        Mockito.when(this.beerRepository.saveAndFlush(savedBeer)).thenReturn(savedBeer);
+        BeerDTO updatedBeerDTO = this.beerService.updateBeer(expectedBeerDTO.getId(), updateBeerDTO);
+        MatcherAssert.assertThat(updatedBeerDTO.getBrand(), Matchers.is(Matchers.equalTo("Heineken")));
+        MatcherAssert.assertThat(updatedBeerDTO.getMax(), Matchers.is(Matchers.equalTo(80)));
+        MatcherAssert.assertThat(updatedBeerDTO.getQuantity(), Matchers.is(Matchers.equalTo(expectedBeerDTO.getQuantity())));
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
+
+    @Test
+    void whenUpdateLowersMaxBelowTheStockThenAnExceptionShouldBeThrown() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer savedBeer = this.beerMapper.toModel(expectedBeerDTO);
+        BeerDTO updateBeerDTO = BeerDTOBuilder.builder().max(expectedBeerDTO.getQuantity() - 1).build().toBeerDTO();
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(savedBeer));
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.beerService.updateBeer(expectedBeerDTO.getId(), updateBeerDTO);
+        });
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.never())).saveAndFlush(Mockito.any(Beer.class));
+    }
+
+    @Test
+    void whenListPageIsCalledWithAFullPageThenReturnTheNextCursor() {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = this.beerMapper.toModel(expectedFoundBeerDTO);
+        Mockito.when(this.beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1))).thenReturn(Collections.singletonList(expectedFoundBeer));
+        BeerPageDTO foundPage = this.beerService.listPage(null, 1);
+        MatcherAssert.assertThat(foundPage.getBeers(), Matchers.contains(expectedFoundBeerDTO));
+        MatcherAssert.assertThat(foundPage.getNext(), Matchers.is(Matchers.equalTo(expectedFoundBeerDTO.getId())));
+    }
+
+    @Test
+    void whenListPageIsCalledWithTheLastPageThenReturnNoCursor() {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = this.beerMapper.toModel(expectedFoundBeerDTO);
+        Mockito.when(this.beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10))).thenReturn(Collections.singletonList(expectedFoundBeer));
+        BeerPageDTO foundPage = this.beerService.listPage(0L, 10);
+        MatcherAssert.assertThat(foundPage.getBeers(), Matchers.contains(expectedFoundBeerDTO));
+        MatcherAssert.assertThat(foundPage.getNext(), Matchers.is(Matchers.nullValue()));
+    }
+
+    @Test
+    void whenSearchIsCalledWithAFullPageThenReturnTheNextCursor() {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerSearchDTO beerSearchDTO = BeerSearchDTO.builder().brand(expectedFoundBeerDTO.getBrand()).limit(1).build();
+        Mockito.when(this.beerRepository.search(beerSearchDTO, 1)).thenReturn(Collections.singletonList(expectedFoundBeerDTO));
+        BeerPageDTO foundPage = this.beerService.search(beerSearchDTO);
+        MatcherAssert.assertThat(foundPage.getBeers(), Matchers.contains(expectedFoundBeerDTO));
+        MatcherAssert.assertThat(foundPage.getNext(), Matchers.is(Matchers.equalTo(expectedFoundBeerDTO.getId())));
+    }
+
+    @Test
+    void whenStreamAllIsCalledThenEveryBeerIsConsumedAndDetached() {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = this.beerMapper.toModel(expectedFoundBeerDTO);
+        Mockito.when(this.beerRepository.streamAllOrderById()).thenReturn(Stream.of(expectedFoundBeer));
+        List<BeerDTO> consumedBeers = new ArrayList<>();
+        this.beerService.streamAll(consumedBeers::add);
+        MatcherAssert.assertThat(consumedBeers, Matchers.contains(expectedFoundBeerDTO));
+        ((EntityManager)Mockito.verify(this.entityManager, Mockito.times(1))).detach(expectedFoundBeer);
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException {
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -101,27 +214,35 @@ public class BeerServiceTest {
         this.beerService.deleteById(expectedDeletedBeerDTO.getId());
         ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(1))).findById(expectedDeletedBeerDTO.getId());
         ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(1))).deleteById(expectedDeletedBeerDTO.getId());
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(Mockito.any(BeerChangedEvent.class));
     }
 
     @Test
     void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
-        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        Mockito.when((Beer)this.beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
+        Mockito.when(this.beerRepository.applyQuantityDelta(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
         BeerDTO incrementedBeerDTO = this.beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
         MatcherAssert.assertThat(expectedQuantityAfterIncrement, Matchers.equalTo(incrementedBeerDTO.getQuantity()));
         MatcherAssert.assertThat(expectedQuantityAfterIncrement, Matchers.lessThan(expectedBeerDTO.getMax()));
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.never())).save(Mockito.any(Beer.class));
+        ArgumentCaptor<BeerChangedEvent> event = ArgumentCaptor.forClass(BeerChangedEvent.class);
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(event.capture());
+        MatcherAssert.assertThat(event.getValue().getBefore().getQuantity(), Matchers.is(Matchers.equalTo(expectedBeerDTO.getQuantity())));
+        MatcherAssert.assertThat(event.getValue().getAfter().getQuantity(), Matchers.is(Matchers.equalTo(expectedQuantityAfterIncrement)));
     }
 
     @Test
     void whenIncrementIsGreatherThanMaxThenThrowException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
-        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
         int quantityToIncrement = 80;
+        Mockito.when(this.beerRepository.applyQuantityDelta(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
         Assertions.assertThrows(BeerStockExceededException.class, () -> {
             this.beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
         });
@@ -131,8 +252,9 @@ public class BeerServiceTest {
     void whenIncrementAfterSumIsGreatherThanMaxThenThrowException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
-        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
         int quantityToIncrement = 45;
+        Mockito.when(this.beerRepository.applyQuantityDelta(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
         Assertions.assertThrows(BeerStockExceededException.class, () -> {
             this.beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
         });
@@ -141,9 +263,65 @@ public class BeerServiceTest {
     @Test
     void whenIncrementIsCalledWithInvalidIdThenThrowException() {
         int quantityToIncrement = 10;
+        Mockito.when(this.beerRepository.applyQuantityDelta(1L, quantityToIncrement)).thenReturn(0);
         Mockito.when(this.beerRepository.findById(1L)).thenReturn(Optional.empty());
         Assertions.assertThrows(BeerNotFoundException.class, () -> {
             this.beerService.increment(1L, quantityToIncrement);
         });
     }
+
+    @Test
+    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockInsufficientException {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = 5;
+        int expectedQuantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(expectedQuantityAfterDecrement);
+        Mockito.when(this.beerRepository.findByIdForUpdate(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        Mockito.when(this.beerRepository.applyQuantityDelta(expectedBeerDTO.getId(), -quantityToDecrement, 0)).thenReturn(1);
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        BeerDTO decrementedBeerDTO = this.beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+        MatcherAssert.assertThat(expectedQuantityAfterDecrement, Matchers.equalTo(decrementedBeerDTO.getQuantity()));
+        MatcherAssert.assertThat(expectedQuantityAfterDecrement, Matchers.greaterThan(0));
+    }
+
+    @Test
+    void whenDecrementIsLowerThanZeroThenThrowException() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
+        int quantityToDecrement = 80;
+        Mockito.when(this.beerRepository.findByIdForUpdate(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        Mockito.when(this.beerRepository.applyQuantityDelta(expectedBeerDTO.getId(), -quantityToDecrement, 0)).thenReturn(0);
+        Mockito.when(this.beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+        });
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowException() {
+        int quantityToDecrement = 10;
+        Mockito.when(this.beerRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+        Assertions.assertThrows(BeerNotFoundException.class, () -> {
+            this.beerService.decrement(1L, quantityToDecrement);
+        });
+    }
+
+    @Test
+    void whenMovementsAreAppliedThenEachMovementReportsItsOutcome() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = this.beerMapper.toModel(expectedBeerDTO);
+        List<StockMovementDTO> movements = Arrays.asList(new StockMovementDTO(expectedBeerDTO.getId(), 30), new StockMovementDTO(expectedBeerDTO.getId(), 20), new StockMovementDTO(expectedBeerDTO.getId(), -50), new StockMovementDTO(2L, 1), new StockMovementDTO(expectedBeerDTO.getId(), -5));
+        Mockito.when(this.beerRepository.findAllByIdInForUpdate(new TreeSet<>(Arrays.asList(expectedBeerDTO.getId(), 2L)))).thenReturn(Collections.singletonList(expectedBeer));
+        List<StockMovementResultDTO> results = this.beerService.applyMovements(movements);
+        MatcherAssert.assertThat(results.get(0).getStatus(), Matchers.is(Matchers.equalTo(StockMovementStatus.APPLIED)));
+        MatcherAssert.assertThat(results.get(0).getQuantity(), Matchers.is(Matchers.equalTo(40)));
+        MatcherAssert.assertThat(results.get(1).getStatus(), Matchers.is(Matchers.equalTo(StockMovementStatus.STOCK_EXCEEDED)));
+        MatcherAssert.assertThat(results.get(2).getStatus(), Matchers.is(Matchers.equalTo(StockMovementStatus.STOCK_INSUFFICIENT)));
+        MatcherAssert.assertThat(results.get(3).getStatus(), Matchers.is(Matchers.equalTo(StockMovementStatus.NOT_FOUND)));
+        MatcherAssert.assertThat(results.get(4).getQuantity(), Matchers.is(Matchers.equalTo(35)));
+        MatcherAssert.assertThat(expectedBeer.getQuantity(), Matchers.is(Matchers.equalTo(35)));
+        ((BeerRepository)Mockito.verify(this.beerRepository, Mockito.times(1))).flush();
+        ((ApplicationEventPublisher)Mockito.verify(this.eventPublisher, Mockito.times(1))).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
 }
@@ -0,0 +1,81 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSuggestionDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ExtendWith({MockitoExtension.class})
+public class BeerSuggestServiceTest {
+    @Mock
+    private BeerRepository beerRepository;
+    private BeerSuggestService beerSuggestService;
+
+    @BeforeEach
+    void setUp() {
+        this.beerSuggestService = new BeerSuggestService(this.beerRepository);
+        this.create(1L, "Brahma Duplo Malte", "Ambev");
+        this.create(2L, "Bohemia", "Ambev");
+        this.create(3L, "Colorado Appia", "Cervejaria Colorado");
+        this.create(4L, "Baden Baden Cristal", "Baden Baden");
+    }
+
+    @Test
+    void whenPrefixIsTypedThenNameAndBrandMatchesAreSuggested() {
+        MatcherAssert.assertThat(this.suggestedIds("bra", 10), Matchers.contains(1L));
+        MatcherAssert.assertThat(this.suggestedIds("AMB", 10), Matchers.containsInAnyOrder(1L, 2L));
+        MatcherAssert.assertThat(this.suggestedIds("malt", 10), Matchers.contains(1L));
+        MatcherAssert.assertThat(this.suggestedIds("cervejaria col", 10), Matchers.contains(3L));
+        MatcherAssert.assertThat(this.suggestedIds("b", 2), Matchers.hasSize(2));
+    }
+
+    @Test
+    void whenNameIsMisspelledThenClosestBeersAreSuggested() {
+        MatcherAssert.assertThat(this.suggestedIds("bohemai", 10).get(0), Matchers.is(Matchers.equalTo(2L)));
+        MatcherAssert.assertThat(this.suggestedIds("colrado apia", 10).get(0), Matchers.is(Matchers.equalTo(3L)));
+        MatcherAssert.assertThat(this.suggestedIds("Crístal", 10), Matchers.contains(4L));
+        MatcherAssert.assertThat(this.suggestedIds("xyz", 10), Matchers.is(Matchers.empty()));
+    }
+
+    @Test
+    void whenBeersAreRenamedOrDeletedThenIndexFollows() {
+        BeerDTO bohemia = BeerDTOBuilder.builder().id(2L).name("Bohemia").brand("Ambev").build().toBeerDTO();
+        BeerDTO renamed = BeerDTOBuilder.builder().id(2L).name("Bohemia Weiss").brand("Ambev").build().toBeerDTO();
+        this.beerSuggestService.onBeerChanged(new BeerChangedEvent(bohemia, renamed));
+        MatcherAssert.assertThat(this.beerSuggestService.suggest("weiss", 10).get(0).getName(), Matchers.is(Matchers.equalTo("Bohemia Weiss")));
+        this.beerSuggestService.onBeerChanged(new BeerChangedEvent(renamed, null));
+        MatcherAssert.assertThat(this.suggestedIds("bohemia", 10), Matchers.is(Matchers.empty()));
+        MatcherAssert.assertThat(this.beerSuggestService.size(), Matchers.is(Matchers.equalTo(3)));
+    }
+
+    @Test
+    void whenIndexIsInitializedThenExistingBeersAreSuggested() {
+        Mockito.when(this.beerRepository.findAllSuggestions()).thenReturn(Collections.singletonList(new BeerSuggestionDTO(5L, "Original", "Ambev")));
+        this.beerSuggestService.initialize();
+        MatcherAssert.assertThat(this.suggestedIds("ori", 10), Matchers.contains(5L));
+        MatcherAssert.assertThat(this.beerSuggestService.size(), Matchers.is(Matchers.equalTo(1)));
+    }
+
+    private void create(Long id, String name, String brand) {
+        this.beerSuggestService.onBeerChanged(new BeerChangedEvent(null, BeerDTOBuilder.builder().id(id).name(name).brand(brand).build().toBeerDTO()));
+    }
+
+    private List<Long> suggestedIds(String query, int limit) {
+        return this.beerSuggestService.suggest(query, limit).stream()
+                .map(BeerSuggestionDTO::getId)
+                .collect(Collectors.toList());
+    }
+}
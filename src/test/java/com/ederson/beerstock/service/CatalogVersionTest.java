@@ -0,0 +1,22 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.listener.BeerCacheListener;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+
+public class CatalogVersionTest {
+
+    @Test
+    void whenABeerChangesThenTheVersionIsBumpedAfterCachesAndAggregatesAreUpdated() throws Exception {
+        int versionOrder = this.listenerOrder(CatalogVersion.class);
+        MatcherAssert.assertThat(this.listenerOrder(BeerCacheListener.class), Matchers.is(Matchers.lessThan(versionOrder)));
+        MatcherAssert.assertThat(this.listenerOrder(InventoryAggregateService.class), Matchers.is(Matchers.lessThan(versionOrder)));
+    }
+
+    private int listenerOrder(Class<?> listenerClass) throws Exception {
+        return new ApplicationListenerMethodAdapter(listenerClass.getSimpleName(), listenerClass, listenerClass.getMethod("onBeerChanged", BeerChangedEvent.class)).getOrder();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerChangeDTO;
+import com.ederson.beerstock.dto.BeerChangePageDTO;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.enums.BeerChangeType;
+import com.ederson.beerstock.exception.ChangeFeedExpiredException;
+import com.ederson.beerstock.repository.BeerRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:changes;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+public class ChangeFeedServiceTest {
+
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenBeersChangeThenOnlyTheLatestStateOfEachBeerIsReturned() throws Exception {
+        long since = this.changeFeedService.listChanges(null, 100).getNext();
+        BeerDTO keptBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Kept").quantity(0).build().toBeerDTO());
+        BeerDTO deletedBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Deleted").quantity(0).build().toBeerDTO());
+        this.beerService.increment(keptBeerDTO.getId(), 3);
+        this.beerService.increment(keptBeerDTO.getId(), 4);
+        this.beerService.deleteById(deletedBeerDTO.getId());
+        BeerChangePageDTO page = this.changeFeedService.listChanges(since, 100);
+        MatcherAssert.assertThat(page.getChanges().stream().map(BeerChangeDTO::getType).collect(Collectors.toList()), Matchers.contains(BeerChangeType.UPSERT, BeerChangeType.DELETE));
+        MatcherAssert.assertThat(page.getChanges().get(0).getBeer().getQuantity(), Matchers.is(Matchers.equalTo(7)));
+        MatcherAssert.assertThat(page.getChanges().get(1).getId(), Matchers.is(Matchers.equalTo(deletedBeerDTO.getId())));
+        MatcherAssert.assertThat(page.getChanges().get(1).getBeer(), Matchers.is(Matchers.nullValue()));
+        MatcherAssert.assertThat(page.getNext(), Matchers.is(Matchers.equalTo(page.getChanges().get(1).getSequence())));
+        MatcherAssert.assertThat(this.changeFeedService.listChanges(page.getNext(), 100).getChanges(), Matchers.is(Matchers.empty()));
+    }
+
+    @Test
+    void whenPageIsFullThenNextResumesAfterItsLastChange() throws Exception {
+        long since = this.changeFeedService.listChanges(null, 100).getNext();
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).build().toBeerDTO());
+        this.beerService.increment(createdBeerDTO.getId(), 1);
+        this.beerService.increment(createdBeerDTO.getId(), 1);
+        BeerChangePageDTO first = this.changeFeedService.listChanges(since, 2);
+        MatcherAssert.assertThat(first.getChanges().get(0).getBeer().getQuantity(), Matchers.is(Matchers.equalTo(1)));
+        BeerChangePageDTO second = this.changeFeedService.listChanges(first.getNext(), 2);
+        MatcherAssert.assertThat(second.getChanges().get(0).getBeer().getQuantity(), Matchers.is(Matchers.equalTo(2)));
+    }
+
+    @Test
+    void whenChangesAreTruncatedThenResyncIsRequired() throws Exception {
+        long since = this.changeFeedService.listChanges(null, 100).getNext();
+        this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).build().toBeerDTO());
+        this.changeFeedService.truncate(Instant.now().plusSeconds(1));
+        Assertions.assertThrows(ChangeFeedExpiredException.class, () -> {
+            this.changeFeedService.listChanges(since, 100);
+        });
+        long resumed = this.changeFeedService.listChanges(null, 100).getNext();
+        MatcherAssert.assertThat(this.changeFeedService.listChanges(resumed, 100).getChanges(), Matchers.is(Matchers.empty()));
+    }
+
+    @Test
+    void whenTruncationRollsBackThenChangesStayReadable() throws Exception {
+        long since = this.changeFeedService.listChanges(null, 100).getNext();
+        this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).build().toBeerDTO());
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.changeFeedService.truncate(Instant.now().plusSeconds(1));
+            status.setRollbackOnly();
+        });
+        MatcherAssert.assertThat(this.changeFeedService.listChanges(since, 100).getChanges(), Matchers.hasSize(1));
+    }
+
+    @Test
+    void whenEarlierTransactionIsInFlightThenLaterCommitsAreNotSkipped() throws Exception {
+        long since = this.changeFeedService.listChanges(null, 100).getNext();
+        BeerDTO slowBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Slow").quantity(0).build().toBeerDTO());
+        long afterSlowCreated = this.changeFeedService.listChanges(since, 100).getNext();
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slow = executor.submit(() -> this.transactionTemplate.executeWithoutResult(status -> {
+            try {
+                this.beerService.increment(slowBeerDTO.getId(), 1);
+                changed.countDown();
+                commit.await(1, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        changed.await(1, TimeUnit.MINUTES);
+        this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Fast").quantity(0).build().toBeerDTO());
+        BeerChangePageDTO blocked = this.changeFeedService.listChanges(afterSlowCreated, 100);
+        MatcherAssert.assertThat(blocked.getChanges(), Matchers.is(Matchers.empty()));
+        MatcherAssert.assertThat(blocked.getNext(), Matchers.is(Matchers.equalTo(afterSlowCreated)));
+        commit.countDown();
+        slow.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        BeerChangePageDTO page = this.changeFeedService.listChanges(afterSlowCreated, 100);
+        MatcherAssert.assertThat(page.getChanges().stream().map(change -> change.getBeer().getName()).collect(Collectors.toList()), Matchers.contains("Slow", "Fast"));
+    }
+}
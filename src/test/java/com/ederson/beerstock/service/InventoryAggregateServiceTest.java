@@ -0,0 +1,82 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.InventoryAggregateDTO;
+import com.ederson.beerstock.dto.InventoryAggregatesDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.InventoryGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+
+@ExtendWith({MockitoExtension.class})
+public class InventoryAggregateServiceTest {
+    @Mock
+    private BeerRepository beerRepository;
+    @Mock
+    private InventoryGroup inventoryGroup;
+    private MeterRegistry meterRegistry;
+    private InventoryAggregateService inventoryAggregateService;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.inventoryAggregateService = new InventoryAggregateService(this.beerRepository, this.meterRegistry);
+    }
+
+    @Test
+    void whenStockChangesThenTotalsFollowWithoutQueryingTheDatabase() {
+        BeerDTO createdBeerDTO = BeerDTOBuilder.builder().quantity(10).build().toBeerDTO();
+        BeerDTO incrementedBeerDTO = BeerDTOBuilder.builder().quantity(25).build().toBeerDTO();
+        this.inventoryAggregateService.onBeerChanged(new BeerChangedEvent(null, createdBeerDTO));
+        this.inventoryAggregateService.onBeerChanged(new BeerChangedEvent(createdBeerDTO, incrementedBeerDTO));
+        InventoryAggregatesDTO aggregates = this.inventoryAggregateService.aggregates();
+        MatcherAssert.assertThat(aggregates.getByBrand(), Matchers.contains(new InventoryAggregateDTO(createdBeerDTO.getBrand(), 1, 25, createdBeerDTO.getMax())));
+        MatcherAssert.assertThat(aggregates.getByType(), Matchers.contains(new InventoryAggregateDTO(createdBeerDTO.getType().name(), 1, 25, createdBeerDTO.getMax())));
+        this.inventoryAggregateService.onBeerChanged(new BeerChangedEvent(incrementedBeerDTO, null));
+        MatcherAssert.assertThat(this.inventoryAggregateService.aggregates().getByBrand(), Matchers.is(Matchers.empty()));
+        Mockito.verifyNoInteractions(this.beerRepository);
+    }
+
+    @Test
+    void whenDriftIsObservedTwiceWithoutChangesThenTotalsAreReloaded() {
+        Mockito.when(this.inventoryGroup.getName()).thenReturn("Ambev");
+        Mockito.when(this.inventoryGroup.getBeers()).thenReturn(2L);
+        Mockito.when(this.inventoryGroup.getQuantity()).thenReturn(30L);
+        Mockito.when(this.inventoryGroup.getCapacity()).thenReturn(100L);
+        Mockito.when(this.beerRepository.aggregateByBrand()).thenReturn(Collections.singletonList(this.inventoryGroup));
+        Mockito.when(this.beerRepository.aggregateByType()).thenReturn(Collections.emptyList());
+        MatcherAssert.assertThat(this.inventoryAggregateService.reconcile(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.inventoryAggregateService.aggregates().getByBrand(), Matchers.is(Matchers.empty()));
+        MatcherAssert.assertThat(this.inventoryAggregateService.reconcile(), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(this.inventoryAggregateService.aggregates().getByBrand(), Matchers.contains(new InventoryAggregateDTO("Ambev", 2, 30, 100)));
+        MatcherAssert.assertThat(this.meterRegistry.get(InventoryAggregateService.DRIFT_COUNTER).tag("dimension", "brand").counter().count(), Matchers.is(Matchers.equalTo(1.0)));
+    }
+
+    @Test
+    void whenStockChangesDuringReconciliationThenDriftIsNotRepaired() {
+        Mockito.when(this.inventoryGroup.getName()).thenReturn("Ambev");
+        Mockito.when(this.inventoryGroup.getBeers()).thenReturn(1L);
+        Mockito.when(this.inventoryGroup.getQuantity()).thenReturn(10L);
+        Mockito.when(this.inventoryGroup.getCapacity()).thenReturn(50L);
+        Mockito.when(this.beerRepository.aggregateByBrand()).thenReturn(Collections.singletonList(this.inventoryGroup));
+        Mockito.when(this.beerRepository.aggregateByType()).thenAnswer(invocation -> {
+            this.inventoryAggregateService.onBeerChanged(new BeerChangedEvent(null, BeerDTOBuilder.builder().build().toBeerDTO()));
+            return Collections.emptyList();
+        });
+        MatcherAssert.assertThat(this.inventoryAggregateService.reconcile(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.inventoryAggregateService.reconcile(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.meterRegistry.get(InventoryAggregateService.DRIFT_COUNTER).tag("dimension", "brand").counter().count(), Matchers.is(Matchers.equalTo(0.0)));
+    }
+}
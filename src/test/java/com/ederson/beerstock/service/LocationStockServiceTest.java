@@ -0,0 +1,172 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerLocationsDTO;
+import com.ederson.beerstock.dto.BeerStockDTO;
+import com.ederson.beerstock.dto.StockTransferDTO;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.LocationAlreadyRegisteredException;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.BeerStockRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:locations;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+public class LocationStockServiceTest {
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 100;
+
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private LocationStockService locationStockService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private BeerStockRepository beerStockRepository;
+
+    @AfterEach
+    void tearDown() {
+        this.beerStockRepository.deleteAll();
+        this.beerRepository.deleteAll();
+        this.locationStockService.initialize();
+    }
+
+    @Test
+    void whenLocationStockChangesThenGlobalQuantityIncludesEveryPartition() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(30).build().toBeerDTO());
+        this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("SP", 50, 20));
+        this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("RJ", 50, 0));
+        this.locationStockService.increment(createdBeerDTO.getId(), "RJ", 7);
+        this.locationStockService.decrement(createdBeerDTO.getId(), "SP", 5);
+        BeerLocationsDTO locations = this.locationStockService.listLocations(createdBeerDTO.getId());
+        MatcherAssert.assertThat(locations.getCentralQuantity(), Matchers.is(Matchers.equalTo(10)));
+        MatcherAssert.assertThat(locations.getQuantity(), Matchers.is(Matchers.equalTo(32L)));
+        MatcherAssert.assertThat(locations.getLocations(), Matchers.contains(new BeerStockDTO("RJ", 50, 7), new BeerStockDTO("SP", 50, 15)));
+        Assertions.assertThrows(LocationAlreadyRegisteredException.class, () -> {
+            this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("SP", 50, 0));
+        });
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.locationStockService.decrement(createdBeerDTO.getId(), "RJ", 8);
+        });
+    }
+
+    @Test
+    void whenTransferWouldBreakLimitsThenNoPartitionChanges() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(30).build().toBeerDTO());
+        this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("SP", 50, 20));
+        this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("RJ", 25, 10));
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.locationStockService.transfer(createdBeerDTO.getId(), new StockTransferDTO("RJ", "SP", 11));
+        });
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.locationStockService.transfer(createdBeerDTO.getId(), new StockTransferDTO("SP", "RJ", 16));
+        });
+        List<BeerStockDTO> transferred = this.locationStockService.transfer(createdBeerDTO.getId(), new StockTransferDTO("SP", "RJ", 15));
+        MatcherAssert.assertThat(transferred, Matchers.contains(new BeerStockDTO("SP", 50, 5), new BeerStockDTO("RJ", 25, 25)));
+        MatcherAssert.assertThat(this.locationStockService.listLocations(createdBeerDTO.getId()).getQuantity(), Matchers.is(Matchers.equalTo(30L)));
+    }
+
+    @Test
+    void whenOppositeTransfersRunConcurrentlyThenTheyDoNotDeadlockAndUnitsAreConserved() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(500).max(500).build().toBeerDTO());
+        Long beerId = createdBeerDTO.getId();
+        this.locationStockService.openLocation(beerId, new BeerStockDTO("SP", 500, 250));
+        this.locationStockService.openLocation(beerId, new BeerStockDTO("RJ", 500, 250));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            StockTransferDTO transferDTO = i % 2 == 0 ? new StockTransferDTO("SP", "RJ", 1) : new StockTransferDTO("RJ", "SP", 1);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                    this.locationStockService.transfer(beerId, transferDTO);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        BeerLocationsDTO locations = this.locationStockService.listLocations(beerId);
+        MatcherAssert.assertThat(locations.getLocations(), Matchers.contains(new BeerStockDTO("RJ", 500, 250), new BeerStockDTO("SP", 500, 250)));
+        MatcherAssert.assertThat(locations.getQuantity(), Matchers.is(Matchers.equalTo(500L)));
+    }
+
+    @Test
+    void whenUnitsMoveThroughTheCentralStockThenTheTotalIsConserved() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(20).build().toBeerDTO());
+        Long beerId = createdBeerDTO.getId();
+        this.locationStockService.openLocation(beerId, new BeerStockDTO("SP", 50, 5));
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.locationStockService.openLocation(beerId, new BeerStockDTO("RJ", 50, 20));
+        });
+        MatcherAssert.assertThat(this.beerStockRepository.findByBeerIdAndLocation(beerId, "RJ").isPresent(), Matchers.is(false));
+        List<BeerStockDTO> toSP = this.locationStockService.transfer(beerId, new StockTransferDTO(LocationStockService.CENTRAL, "SP", 10));
+        MatcherAssert.assertThat(toSP, Matchers.contains(new BeerStockDTO(LocationStockService.CENTRAL, 50, 5), new BeerStockDTO("SP", 50, 15)));
+        List<BeerStockDTO> toCentral = this.locationStockService.transfer(beerId, new StockTransferDTO("SP", LocationStockService.CENTRAL, 12));
+        MatcherAssert.assertThat(toCentral, Matchers.contains(new BeerStockDTO("SP", 50, 3), new BeerStockDTO(LocationStockService.CENTRAL, 50, 17)));
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.locationStockService.transfer(beerId, new StockTransferDTO(LocationStockService.CENTRAL, "SP", 18));
+        });
+        Assertions.assertThrows(LocationAlreadyRegisteredException.class, () -> {
+            this.locationStockService.openLocation(beerId, new BeerStockDTO(LocationStockService.CENTRAL, 50, 0));
+        });
+        BeerLocationsDTO locations = this.locationStockService.listLocations(beerId);
+        MatcherAssert.assertThat(locations.getCentralQuantity(), Matchers.is(Matchers.equalTo(17)));
+        MatcherAssert.assertThat(locations.getQuantity(), Matchers.is(Matchers.equalTo(20L)));
+    }
+
+    @Test
+    void whenTheSameLocationIsOpenedConcurrentlyThenOnlyOneSucceeds() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).build().toBeerDTO());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("SP", 50, 0));
+                    return true;
+                } catch (LocationAlreadyRegisteredException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int opened = 0;
+        for (Future<Boolean> future : futures) {
+            opened += future.get(1, TimeUnit.MINUTES) ? 1 : 0;
+        }
+        executor.shutdown();
+        MatcherAssert.assertThat(opened, Matchers.is(Matchers.equalTo(1)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItsPartitionsAreRemoved() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(20).build().toBeerDTO());
+        this.locationStockService.openLocation(createdBeerDTO.getId(), new BeerStockDTO("SP", 50, 20));
+        this.beerService.deleteById(createdBeerDTO.getId());
+        MatcherAssert.assertThat(this.beerStockRepository.findByBeerIdOrderByLocation(createdBeerDTO.getId()), Matchers.is(Matchers.empty()));
+        MatcherAssert.assertThat(this.locationStockService.locationQuantity(createdBeerDTO.getId()), Matchers.is(Matchers.equalTo(0L)));
+    }
+}
@@ -0,0 +1,108 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.config.StockAlertProperties;
+import com.ederson.beerstock.config.StockThresholds;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class StockAlertServiceTest {
+    private StockAlertProperties stockAlertProperties;
+    private List<Runnable> scheduledDrains;
+    private StockAlertService stockAlertService;
+
+    @BeforeEach
+    void setUp() {
+        this.stockAlertProperties = new StockAlertProperties();
+        this.stockAlertProperties.setBufferSize(2);
+        this.scheduledDrains = new ArrayList<>();
+        this.stockAlertService = new StockAlertService(new StockThresholds(), this.stockAlertProperties, new SimpleMeterRegistry(), this.scheduledDrains::add);
+    }
+
+    @Test
+    void whenStockCrossesAThresholdThenAnAlertIsQueuedForEachSubscriber() {
+        this.stockAlertService.subscribe();
+        this.stockAlertService.subscribe();
+        this.stockAlertService.onBeerChanged(this.stockChange(1, 0));
+        MatcherAssert.assertThat(this.scheduledDrains, Matchers.hasSize(2));
+        this.stockAlertService.getSubscribers().forEach(subscriber -> MatcherAssert.assertThat(subscriber.pendingCount(), Matchers.is(Matchers.equalTo(1))));
+    }
+
+    @Test
+    void whenStockChangesWithinTheSameLevelThenNoAlertIsQueued() {
+        this.stockAlertService.subscribe();
+        this.stockAlertService.onBeerChanged(this.stockChange(20, 30));
+        this.stockAlertService.onBeerChanged(new BeerChangedEvent(null, BeerDTOBuilder.builder().quantity(0).build().toBeerDTO()));
+        MatcherAssert.assertThat(this.scheduledDrains, Matchers.is(Matchers.empty()));
+    }
+
+    @Test
+    void whenSubscriberFallsBehindThenOldestAlertsAreDroppedAndOnlyOneDrainIsScheduled() {
+        this.stockAlertService.subscribe();
+        this.stockAlertService.onBeerChanged(this.stockChange(10, 3));
+        this.stockAlertService.onBeerChanged(this.stockChange(3, 0));
+        this.stockAlertService.onBeerChanged(this.stockChange(0, 48));
+        StockAlertSubscriber subscriber = this.stockAlertService.getSubscribers().iterator().next();
+        MatcherAssert.assertThat(this.scheduledDrains, Matchers.hasSize(1));
+        MatcherAssert.assertThat(subscriber.pendingCount(), Matchers.is(Matchers.equalTo(2)));
+        MatcherAssert.assertThat(subscriber.droppedCount(), Matchers.is(Matchers.equalTo(1L)));
+        this.scheduledDrains.get(0).run();
+        MatcherAssert.assertThat(subscriber.pendingCount(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(subscriber.droppedCount(), Matchers.is(Matchers.equalTo(0L)));
+    }
+
+    @Test
+    void whenASubscriberIsBlockedOnSendThenOthersStillReceiveAlertsAndItIsClosedAfterTheTimeout() throws Exception {
+        ExecutorService dispatcher = Executors.newCachedThreadPool();
+        StockAlertService service = new StockAlertService(new StockThresholds(), this.stockAlertProperties, new SimpleMeterRegistry(), dispatcher);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        service.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                blocked.countDown();
+                try {
+                    release.await(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        service.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                delivered.countDown();
+            }
+        });
+        service.onBeerChanged(this.stockChange(1, 0));
+        MatcherAssert.assertThat(blocked.await(10, TimeUnit.SECONDS), Matchers.is(true));
+        service.onBeerChanged(this.stockChange(0, 48));
+        MatcherAssert.assertThat(delivered.await(10, TimeUnit.SECONDS), Matchers.is(true));
+        MatcherAssert.assertThat(service.closeStalledSubscribers(System.nanoTime()), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(service.closeStalledSubscribers(System.nanoTime() + this.stockAlertProperties.getSendTimeout().toNanos() + 1), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(service.getSubscribers(), Matchers.hasSize(1));
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    private BeerChangedEvent stockChange(int quantityBefore, int quantityAfter) {
+        BeerDTO before = BeerDTOBuilder.builder().quantity(quantityBefore).build().toBeerDTO();
+        BeerDTO after = BeerDTOBuilder.builder().quantity(quantityAfter).build().toBeerDTO();
+        return new BeerChangedEvent(before, after);
+    }
+}
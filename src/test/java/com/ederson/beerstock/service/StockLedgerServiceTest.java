@@ -0,0 +1,105 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockLedgerEntryDTO;
+import com.ederson.beerstock.dto.StockLedgerPageDTO;
+import com.ederson.beerstock.enums.StockMovementKind;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockMovementRepository;
+import com.ederson.beerstock.repository.StockSnapshotRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {"beerstock.ledger.compaction-interval=PT1H", "beerstock.ledger.compaction-min-movements=1"})
+public class StockLedgerServiceTest {
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        this.beerRepository.deleteAll();
+        this.stockSnapshotRepository.deleteAll();
+        this.stockMovementRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockChangesThenEachChangeIsAppendedToTheLedger() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).build().toBeerDTO());
+        this.beerService.increment(createdBeerDTO.getId(), 5);
+        this.beerService.decrement(createdBeerDTO.getId(), 3);
+        StockLedgerPageDTO firstPage = this.stockLedgerService.listMovements(createdBeerDTO.getId(), null, 2);
+        StockLedgerPageDTO lastPage = this.stockLedgerService.listMovements(createdBeerDTO.getId(), firstPage.getNext(), 2);
+        MatcherAssert.assertThat(firstPage.getMovements().stream().map(StockLedgerEntryDTO::getKind).collect(Collectors.toList()), Matchers.contains(StockMovementKind.CREATED, StockMovementKind.INCREMENT));
+        MatcherAssert.assertThat(lastPage.getMovements().stream().map(StockLedgerEntryDTO::getDelta).collect(Collectors.toList()), Matchers.contains(-3));
+        MatcherAssert.assertThat(lastPage.getNext(), Matchers.is(Matchers.nullValue()));
+    }
+
+    @Test
+    void whenMovementsAreCompactedThenQuantityAsOfAnyInstantIsPreserved() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).build().toBeerDTO());
+        this.beerService.increment(createdBeerDTO.getId(), 5);
+        Thread.sleep(5L);
+        Instant beforeDecrement = Instant.now();
+        Thread.sleep(5L);
+        this.beerService.decrement(createdBeerDTO.getId(), 3);
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(createdBeerDTO.getId(), beforeDecrement).getQuantity(), Matchers.is(Matchers.equalTo(15)));
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(1)));
+        this.beerService.increment(createdBeerDTO.getId(), 20);
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(createdBeerDTO.getId(), beforeDecrement).getQuantity(), Matchers.is(Matchers.equalTo(15)));
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(createdBeerDTO.getId(), Instant.now()).getQuantity(), Matchers.is(Matchers.equalTo(32)));
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(createdBeerDTO.getId(), Instant.now()).getQuantity(), Matchers.is(Matchers.equalTo(32)));
+    }
+
+    @Test
+    void whenEarlierMovementIsInFlightThenLaterMovementsAreNotCompactedPastIt() throws Exception {
+        BeerDTO slowBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Slow").quantity(10).build().toBeerDTO());
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(1)));
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slow = executor.submit(() -> this.transactionTemplate.executeWithoutResult(status -> {
+            try {
+                this.beerService.increment(slowBeerDTO.getId(), 1);
+                changed.countDown();
+                commit.await(1, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        changed.await(1, TimeUnit.MINUTES);
+        BeerDTO fastBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Fast").quantity(5).build().toBeerDTO());
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(0)));
+        commit.countDown();
+        slow.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        MatcherAssert.assertThat(this.stockLedgerService.compact(), Matchers.is(Matchers.equalTo(2)));
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(slowBeerDTO.getId(), Instant.now()).getQuantity(), Matchers.is(Matchers.equalTo(11)));
+        MatcherAssert.assertThat(this.stockLedgerService.quantityAt(fastBeerDTO.getId(), Instant.now()).getQuantity(), Matchers.is(Matchers.equalTo(5)));
+    }
+}
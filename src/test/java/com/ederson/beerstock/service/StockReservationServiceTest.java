@@ -0,0 +1,168 @@
+package com.ederson.beerstock.service;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.enums.ReservationStatus;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.exception.ReservationNotHeldException;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockReservationRepository;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class StockReservationServiceTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @AfterEach
+    void tearDown() {
+        this.stockReservationRepository.deleteAll();
+        this.beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenUnitsAreHeldThenTheyCannotBeDecrementedUntilReleased() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).build().toBeerDTO());
+        StockReservationDTO reservation = this.stockReservationService.reserve(createdBeerDTO.getId(), 8, null);
+        MatcherAssert.assertThat(reservation.getStatus(), Matchers.is(Matchers.equalTo(ReservationStatus.HELD)));
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.stockReservationService.reserve(createdBeerDTO.getId(), 3, null);
+        });
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.beerService.decrement(createdBeerDTO.getId(), 3);
+        });
+        MatcherAssert.assertThat(this.stockReservationService.release(reservation.getId()).getStatus(), Matchers.is(Matchers.equalTo(ReservationStatus.RELEASED)));
+        MatcherAssert.assertThat(this.beerService.decrement(createdBeerDTO.getId(), 3).getQuantity(), Matchers.is(Matchers.equalTo(7)));
+        Assertions.assertThrows(ReservationNotHeldException.class, () -> {
+            this.stockReservationService.commit(reservation.getId());
+        });
+    }
+
+    @Test
+    void whenReservationIsCommittedThenHeldUnitsLeaveTheStock() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).build().toBeerDTO());
+        StockReservationDTO first = this.stockReservationService.reserve(createdBeerDTO.getId(), 4, null);
+        this.stockReservationService.reserve(createdBeerDTO.getId(), 6, null);
+        MatcherAssert.assertThat(this.stockReservationService.commit(first.getId()).getStatus(), Matchers.is(Matchers.equalTo(ReservationStatus.COMMITTED)));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(6)));
+        MatcherAssert.assertThat(this.stockReservationService.heldQuantity(createdBeerDTO.getId()), Matchers.is(Matchers.equalTo(6)));
+        Assertions.assertThrows(ReservationNotHeldException.class, () -> {
+            this.stockReservationService.release(first.getId());
+        });
+    }
+
+    @Test
+    void whenHoldExpiresThenUnitsBecomeAvailableAgain() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).build().toBeerDTO());
+        StockReservationDTO reservation = this.stockReservationService.reserve(createdBeerDTO.getId(), 10, Duration.ofMillis(100));
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (this.stockReservationService.heldQuantity(createdBeerDTO.getId()) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        MatcherAssert.assertThat(this.stockReservationService.heldQuantity(createdBeerDTO.getId()), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.stockReservationRepository.findById(reservation.getId()).get().getStatus(), Matchers.is(Matchers.equalTo(ReservationStatus.EXPIRED)));
+    }
+
+    @Test
+    void whenUnknownBeerIsReservedThenNothingIsHeld() {
+        Assertions.assertThrows(BeerNotFoundException.class, () -> {
+            this.stockReservationService.reserve(404L, 1, null);
+        });
+        MatcherAssert.assertThat(this.stockReservationService.heldQuantity(404L), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenCheckoutsRaceForThePopularBeerThenNoUnitIsHeldTwice() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(100).max(100).build().toBeerDTO());
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 25; j++) {
+                    try {
+                        this.stockReservationService.reserve(createdBeerDTO.getId(), 1, null);
+                        held.incrementAndGet();
+                    } catch (BeerStockInsufficientException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        MatcherAssert.assertThat(held.get(), Matchers.is(Matchers.equalTo(100)));
+        MatcherAssert.assertThat(rejected.get(), Matchers.is(Matchers.equalTo(THREADS * 25 - 100)));
+        MatcherAssert.assertThat(this.stockReservationService.heldQuantity(createdBeerDTO.getId()), Matchers.is(Matchers.equalTo(100)));
+    }
+
+    @Test
+    void whenDecrementsRaceWithReservationsThenHeldUnitsStayInStock() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(100).max(100).build().toBeerDTO());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean reserving = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 25; j++) {
+                    try {
+                        if (reserving) {
+                            this.stockReservationService.reserve(createdBeerDTO.getId(), 1, null);
+                        } else {
+                            this.beerService.decrement(createdBeerDTO.getId(), 1);
+                        }
+                    } catch (BeerStockInsufficientException e) {
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        int quantity = this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity();
+        MatcherAssert.assertThat(quantity, Matchers.is(Matchers.greaterThanOrEqualTo(this.stockReservationService.heldQuantity(createdBeerDTO.getId()))));
+        MatcherAssert.assertThat(quantity + this.stockReservationService.heldQuantity(createdBeerDTO.getId()), Matchers.is(Matchers.lessThanOrEqualTo(200)));
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.beerService.increment(createdBeerDTO.getId(), -1);
+        });
+    }
+}
@@ -0,0 +1,257 @@
+package com.ederson.beerstock.store;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.config.StockStoreProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.BeerSearchDTO;
+import com.ederson.beerstock.dto.StockMovementDTO;
+import com.ederson.beerstock.dto.StockReservationDTO;
+import com.ederson.beerstock.entity.Beer;
+import com.ederson.beerstock.enums.BeerType;
+import com.ederson.beerstock.enums.WriteBehindDurability;
+import com.ederson.beerstock.event.BeerChangedEvent;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.exception.BeerStockInsufficientException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockMovementRepository;
+import com.ederson.beerstock.repository.StockReservationRepository;
+import com.ederson.beerstock.repository.WriteBehindCheckpointRepository;
+import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {"beerstock.store.engine=off-heap", "beerstock.store.checkpoint-interval=PT1H", "spring.datasource.url=jdbc:h2:mem:off-heap;DB_CLOSE_DELAY=-1"})
+public class OffHeapStockStoreTest {
+    private static final int THREADS = 8;
+
+    @TempDir
+    static Path logDir;
+
+    @Autowired
+    private OffHeapStockStore offHeapStockStore;
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+    @Autowired
+    private WriteBehindCheckpointRepository checkpointRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BeerMapper beerMapper;
+
+    @DynamicPropertySource
+    static void logDirProperty(DynamicPropertyRegistry registry) {
+        registry.add("beerstock.store.log-dir", () -> logDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.offHeapStockStore.checkpoint();
+        this.beerRepository.deleteAll();
+        this.stockMovementRepository.deleteAll();
+        this.stockReservationRepository.deleteAll();
+        this.checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockChangesThenDatabaseIsUpdatedOnlyAtCheckpoint() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(500).build().toBeerDTO());
+        BeerDTO changedBeerDTO = null;
+        for (int i = 0; i < 100; i++) {
+            changedBeerDTO = this.beerService.increment(createdBeerDTO.getId(), 2);
+        }
+        changedBeerDTO = this.beerService.decrement(createdBeerDTO.getId(), 50);
+        MatcherAssert.assertThat(changedBeerDTO.getQuantity(), Matchers.is(Matchers.equalTo(150)));
+        MatcherAssert.assertThat(changedBeerDTO.getName(), Matchers.is(Matchers.equalTo(createdBeerDTO.getName())));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.offHeapStockStore.checkpoint(), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(150)));
+        MatcherAssert.assertThat(this.offHeapStockStore.checkpoint(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenStockChangesThenReadsSeeItBeforeTheCheckpoint() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).max(500).build().toBeerDTO());
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()).getQuantity(), Matchers.is(Matchers.equalTo(10)));
+        this.beerService.increment(createdBeerDTO.getId(), 5);
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()).getQuantity(), Matchers.is(Matchers.equalTo(15)));
+        this.beerService.decrement(createdBeerDTO.getId(), 3);
+        MatcherAssert.assertThat(this.beerService.findByName(createdBeerDTO.getName()).getQuantity(), Matchers.is(Matchers.equalTo(12)));
+        MatcherAssert.assertThat(this.beerService.listAll().get(0).getQuantity(), Matchers.is(Matchers.equalTo(12)));
+        MatcherAssert.assertThat(this.beerService.listPage(null, 10).getBeers().get(0).getQuantity(), Matchers.is(Matchers.equalTo(12)));
+        MatcherAssert.assertThat(this.beerService.search(new BeerSearchDTO()).getBeers().get(0).getQuantity(), Matchers.is(Matchers.equalTo(12)));
+        List<BeerDTO> streamed = new ArrayList<>();
+        this.beerService.streamAll(streamed::add);
+        MatcherAssert.assertThat(streamed.get(0).getQuantity(), Matchers.is(Matchers.equalTo(12)));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(10)));
+    }
+
+    @Test
+    void whenIncrementsRaceForTheLastUnitsThenMaxIsNeverExceeded() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(100).build().toBeerDTO());
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    try {
+                        this.beerService.increment(createdBeerDTO.getId(), 1);
+                    } catch (BeerStockExceededException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        MatcherAssert.assertThat(rejected.get(), Matchers.is(Matchers.equalTo(THREADS * 50 - 100)));
+        this.offHeapStockStore.checkpoint();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(100)));
+    }
+
+    @Test
+    void whenMovementsAreAppliedThenTheStoreBoundsLaterChangesBeforeTheCheckpoint() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        this.beerService.increment(createdBeerDTO.getId(), 10);
+        this.beerService.applyMovements(Collections.singletonList(new StockMovementDTO(createdBeerDTO.getId(), 30)));
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.beerService.increment(createdBeerDTO.getId(), 11);
+        });
+        MatcherAssert.assertThat(this.beerService.increment(createdBeerDTO.getId(), 10).getQuantity(), Matchers.is(Matchers.equalTo(50)));
+        this.offHeapStockStore.checkpoint();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(50)));
+    }
+
+    @Test
+    void whenReservationIsCommittedThenTheStoreSeesItBeforeTheCheckpoint() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(10).max(50).build().toBeerDTO());
+        StockReservationDTO reservationDTO = this.stockReservationService.reserve(createdBeerDTO.getId(), 10, null);
+        this.stockReservationService.commit(reservationDTO.getId());
+        Assertions.assertThrows(BeerStockInsufficientException.class, () -> {
+            this.beerService.decrement(createdBeerDTO.getId(), 10);
+        });
+        this.offHeapStockStore.checkpoint();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenTransactionRollsBackThenItsStockChangeIsUndone() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        this.transactionTemplate.executeWithoutResult(status -> {
+            try {
+                this.beerService.increment(createdBeerDTO.getId(), 50);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+        MatcherAssert.assertThat(this.beerService.increment(createdBeerDTO.getId(), 50).getQuantity(), Matchers.is(Matchers.equalTo(50)));
+        this.offHeapStockStore.checkpoint();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(50)));
+    }
+
+    @Test
+    void whenCheckpointWriteFailsThenTheNextCheckpointWritesItsChanges() throws Exception {
+        BeerRepository failingRepository = Mockito.mock(BeerRepository.class);
+        Mockito.when(failingRepository.findAll()).thenReturn(Collections.singletonList(new Beer(1L, "Failing", "Brand", 50, 0, BeerType.LAGER, 0L)));
+        Mockito.when(failingRepository.applyQuantityDelta(1L, 5))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+        OffHeapStockStore store = new OffHeapStockStore(failingRepository, this.checkpointRepository, this.transactionTemplate, this.properties(1), this.beerMapper, new SimpleMeterRegistry());
+        store.start();
+        store.applyQuantityDelta(1L, 5);
+        Assertions.assertThrows(IllegalStateException.class, store::checkpoint);
+        MatcherAssert.assertThat(store.checkpoint(), Matchers.is(Matchers.equalTo(1)));
+        Mockito.verify(failingRepository, Mockito.times(2)).applyQuantityDelta(1L, 5);
+        store.stop();
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItsSlotIsReused() throws Exception {
+        BeerRepository emptyRepository = Mockito.mock(BeerRepository.class);
+        OffHeapStockStore store = new OffHeapStockStore(emptyRepository, this.checkpointRepository, this.transactionTemplate, this.properties(1), this.beerMapper, new SimpleMeterRegistry());
+        store.start();
+        BeerDTO deletedBeerDTO = BeerDTOBuilder.builder().id(1L).name("Deleted").quantity(0).max(50).build().toBeerDTO();
+        BeerDTO createdBeerDTO = BeerDTOBuilder.builder().id(2L).name("Created").quantity(0).max(50).build().toBeerDTO();
+        store.onBeerChanged(new BeerChangedEvent(null, deletedBeerDTO));
+        store.onBeerChanged(new BeerChangedEvent(deletedBeerDTO, null));
+        store.checkpoint();
+        store.onBeerChanged(new BeerChangedEvent(null, createdBeerDTO));
+        MatcherAssert.assertThat(store.applyQuantityDelta(2L, 5).getQuantity(), Matchers.is(Matchers.equalTo(5)));
+        Assertions.assertThrows(BeerNotFoundException.class, () -> {
+            store.applyQuantityDelta(1L, 5);
+        });
+        store.stop();
+    }
+
+    @Test
+    void whenLogIsLeftBehindThenUncheckpointedChangesAreReplayedOnStart() throws Exception {
+        Path replayDir = logDir.resolve("replay");
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        MappedStockLog log = new MappedStockLog(replayDir, 1024, false);
+        log.open(0L);
+        log.append(createdBeerDTO.getId(), 3);
+        log.rotate();
+        log.append(createdBeerDTO.getId(), 4);
+        log.close();
+        StockStoreProperties properties = this.properties(16);
+        properties.setDurability(WriteBehindDurability.JOURNAL);
+        properties.setLogDir(replayDir.toString());
+        OffHeapStockStore recovered = new OffHeapStockStore(this.beerRepository, this.checkpointRepository, this.transactionTemplate, properties, this.beerMapper, new SimpleMeterRegistry());
+        recovered.start();
+        recovered.stop();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(7)));
+        MatcherAssert.assertThat(log.segments(), Matchers.contains(2L));
+        recovered.start();
+        MatcherAssert.assertThat(recovered.applyQuantityDelta(createdBeerDTO.getId(), 43).getQuantity(), Matchers.is(Matchers.equalTo(50)));
+        MatcherAssert.assertThat(recovered.applyQuantityDelta(createdBeerDTO.getId(), 1), Matchers.is(Matchers.nullValue()));
+        recovered.stop();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(50)));
+    }
+
+    private StockStoreProperties properties(int capacity) {
+        StockStoreProperties properties = new StockStoreProperties();
+        properties.setCapacity(capacity);
+        properties.setDurability(WriteBehindDurability.NONE);
+        return properties;
+    }
+}
@@ -0,0 +1,151 @@
+package com.ederson.beerstock.writebehind;
+
+import com.ederson.beerstock.builder.BeerDTOBuilder;
+import com.ederson.beerstock.config.StockStoreProperties;
+import com.ederson.beerstock.config.WriteBehindProperties;
+import com.ederson.beerstock.dto.BeerDTO;
+import com.ederson.beerstock.dto.StockLedgerEntryDTO;
+import com.ederson.beerstock.enums.StockStoreEngine;
+import com.ederson.beerstock.exception.BeerNotFoundException;
+import com.ederson.beerstock.exception.BeerStockExceededException;
+import com.ederson.beerstock.mapper.BeerMapper;
+import com.ederson.beerstock.repository.BeerRepository;
+import com.ederson.beerstock.repository.StockMovementRepository;
+import com.ederson.beerstock.repository.WriteBehindCheckpointRepository;
+import com.ederson.beerstock.service.BeerService;
+import com.ederson.beerstock.service.StockLedgerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {"beerstock.write-behind.enabled=true", "beerstock.write-behind.flush-interval=PT1H", "beerstock.write-behind.journal-dir=target/write-behind-test"})
+public class StockWriteBehindServiceTest {
+    @Autowired
+    private StockWriteBehindService stockWriteBehindService;
+    @Autowired
+    private BeerService beerService;
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    @Autowired
+    private BeerRepository beerRepository;
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    @Autowired
+    private WriteBehindCheckpointRepository checkpointRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BeerMapper beerMapper;
+
+    @AfterEach
+    void tearDown() {
+        this.stockWriteBehindService.flush();
+        this.beerRepository.deleteAll();
+        this.stockMovementRepository.deleteAll();
+        this.checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void whenABurstOfIncrementsIsAcknowledgedThenItIsFlushedAsOneWrite() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(500).build().toBeerDTO());
+        BeerDTO acknowledgedBeerDTO = null;
+        for (int i = 0; i < 100; i++) {
+            acknowledgedBeerDTO = this.stockWriteBehindService.increment(createdBeerDTO.getId(), 1);
+        }
+        MatcherAssert.assertThat(acknowledgedBeerDTO.getQuantity(), Matchers.is(Matchers.equalTo(100)));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(0)));
+        MatcherAssert.assertThat(this.stockWriteBehindService.flush(), Matchers.is(Matchers.equalTo(1)));
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(100)));
+        MatcherAssert.assertThat(this.stockLedgerService.listMovements(createdBeerDTO.getId(), null, 10).getMovements().stream().map(StockLedgerEntryDTO::getDelta).collect(Collectors.toList()), Matchers.contains(0, 100));
+        MatcherAssert.assertThat(this.stockWriteBehindService.flush(), Matchers.is(Matchers.equalTo(0)));
+    }
+
+    @Test
+    void whenPendingIncrementsWouldExceedMaxThenIncrementIsRejectedImmediately() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        this.stockWriteBehindService.increment(createdBeerDTO.getId(), 40);
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.stockWriteBehindService.increment(createdBeerDTO.getId(), 11);
+        });
+        Assertions.assertThrows(BeerNotFoundException.class, () -> {
+            this.stockWriteBehindService.increment(createdBeerDTO.getId() + 1000L, 1);
+        });
+        this.stockWriteBehindService.flush();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(40)));
+    }
+
+    @Test
+    void whenStockChangesOutsideWriteBehindThenCounterIsReloaded() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        this.stockWriteBehindService.increment(createdBeerDTO.getId(), 10);
+        this.stockWriteBehindService.flush();
+        this.beerService.increment(createdBeerDTO.getId(), 35);
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.stockWriteBehindService.increment(createdBeerDTO.getId(), 6);
+        });
+        MatcherAssert.assertThat(this.stockWriteBehindService.increment(createdBeerDTO.getId(), 5).getQuantity(), Matchers.is(Matchers.equalTo(50)));
+    }
+
+    @Test
+    void whenStockIsWrittenThroughWhileIncrementsArePendingThenCounterIsRebased() throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        this.stockWriteBehindService.increment(createdBeerDTO.getId(), 10);
+        this.beerService.increment(createdBeerDTO.getId(), 35);
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.stockWriteBehindService.increment(createdBeerDTO.getId(), 6);
+        });
+        MatcherAssert.assertThat(this.stockWriteBehindService.increment(createdBeerDTO.getId(), 5).getQuantity(), Matchers.is(Matchers.equalTo(50)));
+        Assertions.assertThrows(BeerStockExceededException.class, () -> {
+            this.stockWriteBehindService.increment(createdBeerDTO.getId(), -51);
+        });
+        this.stockWriteBehindService.flush();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(50)));
+    }
+
+    @Test
+    void whenJournalIsLeftBehindThenUnflushedIncrementsAreReplayedOnStart(@TempDir Path journalDir) throws Exception {
+        BeerDTO createdBeerDTO = this.beerService.createBeer(BeerDTOBuilder.builder().id(null).quantity(0).max(50).build().toBeerDTO());
+        StockJournal journal = new StockJournal(journalDir, false);
+        journal.open(0L);
+        journal.append(createdBeerDTO.getId(), 3);
+        journal.rotate();
+        journal.append(createdBeerDTO.getId(), 4);
+        journal.close();
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setJournalDir(journalDir.toString());
+        StockWriteBehindService recovered = new StockWriteBehindService(this.beerRepository, this.checkpointRepository, this.eventPublisher, this.transactionTemplate, properties, new StockStoreProperties(), this.beerMapper, new SimpleMeterRegistry());
+        recovered.start();
+        recovered.stop();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(7)));
+        MatcherAssert.assertThat(this.checkpointRepository.findAll().get(0).getSegment(), Matchers.is(Matchers.equalTo(1L)));
+        MatcherAssert.assertThat(journal.segments(), Matchers.contains(2L));
+        recovered.start();
+        recovered.stop();
+        MatcherAssert.assertThat(this.beerRepository.findById(createdBeerDTO.getId()).get().getQuantity(), Matchers.is(Matchers.equalTo(7)));
+    }
+
+    @Test
+    void whenStockStoreIsOffHeapThenWriteBehindRefusesToStart() {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        StockStoreProperties stockStoreProperties = new StockStoreProperties();
+        stockStoreProperties.setEngine(StockStoreEngine.OFF_HEAP);
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            new StockWriteBehindService(this.beerRepository, this.checkpointRepository, this.eventPublisher, this.transactionTemplate, properties, stockStoreProperties, this.beerMapper, new SimpleMeterRegistry());
+        });
+    }
+}